@@ -1,7 +1,9 @@
 package com.tenor.android.core.concurrent;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
+import java.util.Collection;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -10,24 +12,47 @@ import java.util.concurrent.atomic.AtomicInteger;
  */
 public class ConcurrentFifoQueue<T> implements IConcurrentFifoQueue<T> {
 
-    @NonNull
+    @Nullable
     private final ConcurrentLinkedQueue<T> mQueue;
 
     /**
      * Use explicit size counter to compensate the non-constant-time size() operation
      * in {@link ConcurrentLinkedQueue}
      */
+    @Nullable
     private final AtomicInteger mQueueSize;
 
+    /**
+     * The queue backing a subclass, {@code null} if {@link #mQueue} is used
+     */
+    @Nullable
+    private final IConcurrentFifoQueue<T> mBackingQueue;
+
     public ConcurrentFifoQueue() {
         mQueue = new ConcurrentLinkedQueue<>();
         mQueueSize = new AtomicInteger();
+        mBackingQueue = null;
+    }
+
+    /**
+     * Queue the elements in the given queue instead of a {@link ConcurrentLinkedQueue}, which is
+     * then never created
+     *
+     * @param queue the queue backing the subclass, such as a {@link RingBufferFifoQueue}
+     */
+    protected ConcurrentFifoQueue(@NonNull IConcurrentFifoQueue<T> queue) {
+        mQueue = null;
+        mQueueSize = null;
+        mBackingQueue = queue;
     }
 
     /**
      * @return the size of the {@link ConcurrentLinkedQueue} of {@link T}
      */
     public int add(@NonNull T event) {
+        if (mBackingQueue != null) {
+            return mBackingQueue.add(event);
+        }
         mQueue.add(event);
         return mQueueSize.incrementAndGet();
     }
@@ -39,13 +64,38 @@ public class ConcurrentFifoQueue<T> implements IConcurrentFifoQueue<T> {
      * @return the head of this queue, or {@code null} if this queue is empty
      */
     public T poll() {
+        if (mBackingQueue != null) {
+            return mBackingQueue.poll();
+        }
         // decrement the index only after retrieving the content
         final T t = mQueue.poll();
-        mQueueSize.decrementAndGet();
+        if (t != null) {
+            mQueueSize.decrementAndGet();
+        }
         return t;
     }
 
+    /**
+     * Retrieves and removes up to {@code max} elements from the head of {@link ConcurrentLinkedQueue}
+     *
+     * @param sink the {@link Collection} to add the elements to
+     * @param max  the maximum number of elements
+     * @return the number of elements drained
+     */
+    public int drain(@NonNull Collection<? super T> sink, int max) {
+        int count = 0;
+        T t;
+        while (count < max && (t = poll()) != null) {
+            sink.add(t);
+            count++;
+        }
+        return count;
+    }
+
     public int size() {
+        if (mBackingQueue != null) {
+            return mBackingQueue.size();
+        }
         return mQueueSize.get();
     }
 }
@@ -0,0 +1,32 @@
+package com.tenor.android.core.concurrent;
+
+import android.support.annotation.IntDef;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * What a bounded queue does with a new element once it is full
+ */
+public class OverflowPolicy {
+
+    @Retention(RetentionPolicy.CLASS)
+    @IntDef({DROP_OLDEST, DROP_NEWEST, BLOCK})
+    public @interface Value {
+    }
+
+    /**
+     * Drop the head of the queue to make room for the new element
+     */
+    public static final int DROP_OLDEST = 0;
+
+    /**
+     * Drop the new element
+     */
+    public static final int DROP_NEWEST = 1;
+
+    /**
+     * Wait until the consumer makes room, never use it on the UI thread
+     */
+    public static final int BLOCK = 2;
+}
@@ -0,0 +1,173 @@
+package com.tenor.android.core.concurrent;
+
+import android.support.annotation.IntRange;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A bounded, lock-free {@link IConcurrentFifoQueue} backed by a ring buffer, meant for many
+ * producers and a single consumer that drains it in batches
+ * <p>
+ * Each slot carries a sequence number telling whether it is free or holds a published element,
+ * so producers only race on a compare-and-set of the tail, and no node is allocated per element.
+ * What happens once the buffer is full is decided by its {@link OverflowPolicy}
+ */
+public class RingBufferFifoQueue<T> implements IConcurrentFifoQueue<T> {
+
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final AtomicReferenceArray<T> mBuffer;
+    private final AtomicLongArray mSequences;
+    private final int mMask;
+    @OverflowPolicy.Value
+    private final int mOverflowPolicy;
+
+    private final AtomicLong mHead = new AtomicLong();
+    private final AtomicLong mTail = new AtomicLong();
+    private final AtomicInteger mDroppedCount = new AtomicInteger();
+
+    /**
+     * @param capacity       the capacity, rounded up to the next power of two, and to at least 2,
+     *                       since a single slot cannot tell a published element from a free slot
+     * @param overflowPolicy the {@link OverflowPolicy}
+     */
+    public RingBufferFifoQueue(@IntRange(from = 1, to = 1 << 30) int capacity,
+                               @OverflowPolicy.Value int overflowPolicy) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity must be between 1 and 2^30: " + capacity);
+        }
+
+        final int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        mBuffer = new AtomicReferenceArray<>(size);
+        mSequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            mSequences.set(i, i);
+        }
+        mMask = size - 1;
+        mOverflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * Add an element, applying the {@link OverflowPolicy} if the queue is full
+     *
+     * @return the size of the queue
+     */
+    @Override
+    public int add(@NonNull T event) {
+        while (!offer(event)) {
+            switch (mOverflowPolicy) {
+                case OverflowPolicy.DROP_NEWEST:
+                    mDroppedCount.incrementAndGet();
+                    return size();
+                case OverflowPolicy.DROP_OLDEST:
+                    if (poll() != null) {
+                        mDroppedCount.incrementAndGet();
+                    }
+                    break;
+                case OverflowPolicy.BLOCK:
+                default:
+                    LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                    break;
+            }
+        }
+        return size();
+    }
+
+    /**
+     * @return false if the queue is full
+     */
+    public boolean offer(@NonNull T event) {
+        long tail = mTail.get();
+        int index;
+        while (true) {
+            index = (int) (tail & mMask);
+            final long diff = mSequences.get(index) - tail;
+            if (diff == 0) {
+                if (mTail.compareAndSet(tail, tail + 1)) {
+                    break;
+                }
+                tail = mTail.get();
+            } else if (diff < 0) {
+                // the slot still holds the element of the previous lap
+                return false;
+            } else {
+                tail = mTail.get();
+            }
+        }
+
+        mBuffer.lazySet(index, event);
+        // publish
+        mSequences.set(index, tail + 1);
+        return true;
+    }
+
+    @Nullable
+    @Override
+    public T poll() {
+        long head = mHead.get();
+        int index;
+        while (true) {
+            index = (int) (head & mMask);
+            final long diff = mSequences.get(index) - (head + 1);
+            if (diff == 0) {
+                if (mHead.compareAndSet(head, head + 1)) {
+                    break;
+                }
+                head = mHead.get();
+            } else if (diff < 0) {
+                // empty, or the producer has not published the element yet
+                return null;
+            } else {
+                head = mHead.get();
+            }
+        }
+
+        final T event = mBuffer.get(index);
+        mBuffer.lazySet(index, null);
+        // free the slot for the next lap
+        mSequences.set(index, head + mMask + 1);
+        return event;
+    }
+
+    /**
+     * Retrieves and removes up to {@code max} elements from the head of the queue
+     *
+     * @param sink the {@link Collection} to add the elements to
+     * @param max  the maximum number of elements
+     * @return the number of elements drained
+     */
+    public int drain(@NonNull Collection<? super T> sink, int max) {
+        int count = 0;
+        T event;
+        while (count < max && (event = poll()) != null) {
+            sink.add(event);
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public int size() {
+        final long size = mTail.get() - mHead.get();
+        return (int) Math.max(0, Math.min(size, mMask + 1));
+    }
+
+    public int capacity() {
+        return mMask + 1;
+    }
+
+    /**
+     * @return number of elements dropped by the {@link OverflowPolicy}
+     */
+    public int droppedCount() {
+        return mDroppedCount.get();
+    }
+}
@@ -0,0 +1,21 @@
+package com.tenor.android.core.loader;
+
+import android.support.annotation.NonNull;
+
+import com.tenor.android.core.constant.MediaCollectionFormat;
+import com.tenor.android.core.model.impl.Result;
+
+/**
+ * Listener of the {@link MediaCollectionFormat} chosen by {@link MediaFormatSelector}, for metrics
+ */
+public interface IMediaFormatListener {
+
+    /**
+     * @param result         the {@link Result}
+     * @param format         the chosen {@link MediaCollectionFormat}
+     * @param estimatedBytes the estimated size of the chosen media in bytes
+     * @param throughput     the network speed used for the choice in KB/s, or -1 if unknown
+     */
+    void onMediaFormatSelected(@NonNull Result result, @NonNull @MediaCollectionFormat.Value String format,
+                               long estimatedBytes, float throughput);
+}
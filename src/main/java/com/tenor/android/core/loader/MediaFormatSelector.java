@@ -0,0 +1,188 @@
+package com.tenor.android.core.loader;
+
+import android.content.Context;
+import android.support.annotation.IntRange;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.tenor.android.core.constant.MediaCollectionFormat;
+import com.tenor.android.core.model.impl.Media;
+import com.tenor.android.core.model.impl.MediaCollection;
+import com.tenor.android.core.model.impl.Result;
+import com.tenor.android.core.util.AbstractListUtils;
+import com.tenor.android.core.util.AbstractNetworkUtils;
+
+/**
+ * Chooses the {@link MediaCollectionFormat} of a {@link Result} to display in a cell, from the
+ * measured network speed, the screen density, the cell size and the dimensions of each {@link Media}
+ * <p>
+ * The smallest format that is sharp enough for the cell is chosen, unless it cannot be downloaded
+ * within two seconds at the measured network speed
+ */
+public class MediaFormatSelector {
+
+    /**
+     * How long the chosen media is allowed to take to download, in seconds
+     */
+    private static final float LOAD_TIME_BUDGET = 2f;
+
+    private static final String[] GIF_FORMATS = {MediaCollectionFormat.GIF_NANO, MediaCollectionFormat.GIF_TINY,
+            MediaCollectionFormat.GIF_MEDIUM, MediaCollectionFormat.GIF};
+    private static final String[] MP4_FORMATS = {MediaCollectionFormat.MP4_NANO, MediaCollectionFormat.MP4_TINY,
+            MediaCollectionFormat.MP4};
+    private static final String[] WEBM_FORMATS = {MediaCollectionFormat.WEBM_NANO, MediaCollectionFormat.WEBM_TINY,
+            MediaCollectionFormat.WEBM};
+
+    private final Context mContext;
+    private final float mDensity;
+    @Nullable
+    private IMediaFormatListener mListener;
+
+    public MediaFormatSelector(@NonNull Context context) {
+        mContext = context.getApplicationContext();
+        mDensity = context.getResources().getDisplayMetrics().density;
+    }
+
+    public MediaFormatSelector setListener(@Nullable IMediaFormatListener listener) {
+        mListener = listener;
+        return this;
+    }
+
+    /**
+     * @param result    the {@link Result}
+     * @param cellWidth the width of the cell in pixels
+     * @return one of the GIF formats of {@link MediaCollectionFormat}
+     */
+    @NonNull
+    @MediaCollectionFormat.Value
+    public String selectGif(@NonNull Result result, @IntRange(from = 1) int cellWidth) {
+        return select(result, cellWidth, GIF_FORMATS);
+    }
+
+    /**
+     * @param result    the {@link Result}
+     * @param cellWidth the width of the cell in pixels
+     * @return one of the MP4 formats of {@link MediaCollectionFormat}
+     */
+    @NonNull
+    @MediaCollectionFormat.Value
+    public String selectMp4(@NonNull Result result, @IntRange(from = 1) int cellWidth) {
+        return select(result, cellWidth, MP4_FORMATS);
+    }
+
+    /**
+     * @param result    the {@link Result}
+     * @param cellWidth the width of the cell in pixels
+     * @return one of the WEBM formats of {@link MediaCollectionFormat}
+     */
+    @NonNull
+    @MediaCollectionFormat.Value
+    public String selectWebm(@NonNull Result result, @IntRange(from = 1) int cellWidth) {
+        return select(result, cellWidth, WEBM_FORMATS);
+    }
+
+    /**
+     * @param result    the {@link Result}
+     * @param cellWidth the width of the cell in pixels
+     * @param formats   the candidate {@link MediaCollectionFormat}s, from the smallest to the largest
+     * @return the chosen {@link MediaCollectionFormat}
+     */
+    @NonNull
+    @MediaCollectionFormat.Value
+    public String select(@NonNull Result result, @IntRange(from = 1) int cellWidth,
+                         @NonNull @MediaCollectionFormat.Value String... formats) {
+        if (formats.length == 0) {
+            throw new IllegalArgumentException("formats cannot be empty");
+        }
+
+        final float throughput = AbstractNetworkUtils.getThroughput();
+        final int minWidth = (int) (cellWidth * getQuality(throughput));
+        final long budget = throughput > 0 ? (long) (throughput * 1024 * LOAD_TIME_BUDGET) : Long.MAX_VALUE;
+
+        final MediaCollection collection = !AbstractListUtils.isEmpty(result.getMedias())
+                ? result.getMedias().get(0) : null;
+
+        String format = formats[0];
+        long bytes = collection != null ? estimateBytes(collection.get(format), format) : 0;
+        for (int i = 1; collection != null && i < formats.length; i++) {
+            final Media current = collection.get(format);
+            if (current.getWidth() >= minWidth) {
+                // sharp enough
+                break;
+            }
+
+            final Media media = collection.get(formats[i]);
+            if (media.getWidth() <= 0) {
+                // missing or skipped format
+                continue;
+            }
+
+            final long estimate = estimateBytes(media, formats[i]);
+            if (estimate > budget && current.getWidth() > 0) {
+                // too slow to download, keep the smaller one
+                break;
+            }
+            format = formats[i];
+            bytes = estimate;
+        }
+
+        if (mListener != null) {
+            mListener.onMediaFormatSelected(result, format, bytes, throughput);
+        }
+        return format;
+    }
+
+    /**
+     * @return the fraction of the cell width the chosen media needs to cover
+     */
+    private float getQuality(float throughput) {
+        float quality;
+        if (throughput <= 0) {
+            quality = AbstractNetworkUtils.isFastNetworkConnected(mContext) ? 1f : 0.5f;
+        } else {
+            final int kbps = (int) (throughput * 8);
+            if (kbps > 1000) {
+                quality = 1f;
+            } else if (kbps > 400) {
+                quality = 0.75f;
+            } else {
+                quality = 0.5f;
+            }
+        }
+
+        // a slightly upscaled media is hard to tell apart on a dense screen
+        if (mDensity >= 3f) {
+            quality *= 0.85f;
+        }
+        return quality;
+    }
+
+    /**
+     * @return {@link Media#getSize()}, or an estimate from its dimensions and duration if it is unknown
+     */
+    private static long estimateBytes(@NonNull Media media, @NonNull String format) {
+        if (media.getSize() > 0) {
+            return media.getSize();
+        }
+
+        if (media.getWidth() <= 0 || media.getHeight() <= 0) {
+            return 0;
+        }
+
+        final double duration = media.getDuration() > 0 ? media.getDuration() : 1;
+        final double bytesPerPixelSecond;
+        switch (format) {
+            case MediaCollectionFormat.GIF:
+            case MediaCollectionFormat.GIF_MEDIUM:
+            case MediaCollectionFormat.GIF_TINY:
+            case MediaCollectionFormat.GIF_NANO:
+                // ~10 fps at about half a byte per pixel per frame
+                bytesPerPixelSecond = 5;
+                break;
+            default:
+                bytesPerPixelSecond = 0.4;
+                break;
+        }
+        return (long) (media.getWidth() * media.getHeight() * duration * bytesPerPixelSecond);
+    }
+}
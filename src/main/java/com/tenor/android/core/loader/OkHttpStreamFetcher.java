@@ -0,0 +1,78 @@
+package com.tenor.android.core.loader;
+
+import android.support.annotation.NonNull;
+
+import com.bumptech.glide.Priority;
+import com.bumptech.glide.load.data.DataFetcher;
+import com.bumptech.glide.load.model.GlideUrl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+import okhttp3.Call;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * A Glide {@link DataFetcher} that downloads a {@link GlideUrl} with OkHttp
+ */
+public class OkHttpStreamFetcher implements DataFetcher<InputStream> {
+
+    private final Call.Factory mClient;
+    private final GlideUrl mUrl;
+    private InputStream mStream;
+    private ResponseBody mBody;
+    private volatile Call mCall;
+
+    public OkHttpStreamFetcher(@NonNull Call.Factory client, @NonNull GlideUrl url) {
+        mClient = client;
+        mUrl = url;
+    }
+
+    @Override
+    public InputStream loadData(Priority priority) throws Exception {
+        final Request.Builder request = new Request.Builder().url(mUrl.toStringUrl());
+        for (Map.Entry<String, String> header : mUrl.getHeaders().entrySet()) {
+            request.addHeader(header.getKey(), header.getValue());
+        }
+
+        mCall = mClient.newCall(request.build());
+        final Response response = mCall.execute();
+        mBody = response.body();
+        if (!response.isSuccessful() || mBody == null) {
+            throw new IOException("Request failed with code: " + response.code());
+        }
+
+        mStream = mBody.byteStream();
+        return mStream;
+    }
+
+    @Override
+    public void cleanup() {
+        try {
+            if (mStream != null) {
+                mStream.close();
+            }
+        } catch (IOException ignored) {
+        }
+
+        if (mBody != null) {
+            mBody.close();
+        }
+    }
+
+    @Override
+    public String getId() {
+        return mUrl.getCacheKey();
+    }
+
+    @Override
+    public void cancel() {
+        final Call call = mCall;
+        if (call != null) {
+            call.cancel();
+        }
+    }
+}
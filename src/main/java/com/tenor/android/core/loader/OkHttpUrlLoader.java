@@ -0,0 +1,50 @@
+package com.tenor.android.core.loader;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+
+import com.bumptech.glide.load.data.DataFetcher;
+import com.bumptech.glide.load.model.GenericLoaderFactory;
+import com.bumptech.glide.load.model.GlideUrl;
+import com.bumptech.glide.load.model.ModelLoader;
+import com.bumptech.glide.load.model.ModelLoaderFactory;
+
+import java.io.InputStream;
+
+import okhttp3.Call;
+
+/**
+ * A Glide {@link ModelLoader} that downloads every {@link GlideUrl} with OkHttp
+ */
+public class OkHttpUrlLoader implements ModelLoader<GlideUrl, InputStream> {
+
+    private final Call.Factory mClient;
+
+    public OkHttpUrlLoader(@NonNull Call.Factory client) {
+        mClient = client;
+    }
+
+    @Override
+    public DataFetcher<InputStream> getResourceFetcher(GlideUrl model, int width, int height) {
+        return new OkHttpStreamFetcher(mClient, model);
+    }
+
+    public static class Factory implements ModelLoaderFactory<GlideUrl, InputStream> {
+
+        private final Call.Factory mClient;
+
+        public Factory(@NonNull Call.Factory client) {
+            mClient = client;
+        }
+
+        @Override
+        public ModelLoader<GlideUrl, InputStream> build(Context context, GenericLoaderFactory factories) {
+            return new OkHttpUrlLoader(mClient);
+        }
+
+        @Override
+        public void teardown() {
+            // do nothing, the client is owned by its creator
+        }
+    }
+}
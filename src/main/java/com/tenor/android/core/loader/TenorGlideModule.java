@@ -0,0 +1,90 @@
+package com.tenor.android.core.loader;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.GlideBuilder;
+import com.bumptech.glide.load.model.GlideUrl;
+import com.bumptech.glide.module.GlideModule;
+import com.tenor.android.core.network.ApiClient;
+
+import java.io.InputStream;
+
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+
+/**
+ * A {@link GlideModule} that downloads the media with the same {@link OkHttpClient} as the API calls,
+ * so both share the TLS sessions and HTTP/2 connections to the Tenor hosts
+ * <p>
+ * It is opt-in, so it does not conflict with the app's own {@link GlideModule}s or loaders; either
+ * declare it in the app's manifest:
+ * <pre>
+ * &lt;meta-data
+ *     android:name="com.tenor.android.core.loader.TenorGlideModule"
+ *     android:value="GlideModule" /&gt;
+ * </pre>
+ * or call {@link #register(Glide)} from the app's own {@link GlideModule#registerComponents(Context, Glide)}
+ */
+public class TenorGlideModule implements GlideModule {
+
+    @Override
+    public void applyOptions(Context context, GlideBuilder builder) {
+        // use the default options
+    }
+
+    @Override
+    public void registerComponents(Context context, Glide glide) {
+        register(glide);
+    }
+
+    /**
+     * Load the {@link GlideUrl}s of the given {@link Glide} with the {@link OkHttpClient} of {@link ApiClient}
+     *
+     * @param glide the {@link Glide}
+     */
+    public static void register(@NonNull Glide glide) {
+        glide.register(GlideUrl.class, InputStream.class, new OkHttpUrlLoader.Factory(new ApiCallFactory()));
+    }
+
+    /**
+     * Glide can be initialized before {@link ApiClient}, so the client is looked up on every call,
+     * with a fallback client until {@link ApiClient} has been initialized
+     */
+    private static class ApiCallFactory implements Call.Factory {
+
+        private OkHttpClient mApiClient;
+        private OkHttpClient mMediaClient;
+
+        @Override
+        public Call newCall(Request request) {
+            return getClient().newCall(request);
+        }
+
+        private synchronized OkHttpClient getClient() {
+            final OkHttpClient api = ApiClient.isInitialized() ? ApiClient.getHttpClient() : null;
+            if (mMediaClient == null || api != mApiClient) {
+                mApiClient = api;
+                mMediaClient = api != null ? createMediaClient(api) : new OkHttpClient();
+            }
+            return mMediaClient;
+        }
+
+        /**
+         * Share the connection pool and dispatcher of the API client, without its cache, since Glide
+         * has its own disk cache, and without its interceptors, such as the request compressor and
+         * the app's own ones, which are only meant for the API calls
+         * <p>
+         * The client is derived from the API client rather than built from scratch, so it keeps the
+         * same TLS socket factory and the pooled connections still match the media requests
+         */
+        private static OkHttpClient createMediaClient(OkHttpClient api) {
+            final OkHttpClient.Builder builder = api.newBuilder().cache(null);
+            builder.interceptors().clear();
+            builder.networkInterceptors().clear();
+            return builder.build();
+        }
+    }
+}
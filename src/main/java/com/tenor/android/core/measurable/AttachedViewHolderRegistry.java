@@ -0,0 +1,87 @@
+package com.tenor.android.core.measurable;
+
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v7.widget.RecyclerView;
+
+import com.tenor.android.core.R;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@link RecyclerView.ViewHolder}s currently attached to a {@link RecyclerView}, kept up to date by
+ * the {@link RecyclerView.OnChildAttachStateChangeListener} added in
+ * {@link MeasurableRecyclerViewHelper#onConstruct(RecyclerView)}
+ * <p>
+ * Lets the view holders be looked up in time proportional to the number of attached children,
+ * instead of the number of items of the adapter
+ */
+@MainThread
+class AttachedViewHolderRegistry {
+
+    private final List<RecyclerView.ViewHolder> mHolders = new ArrayList<>();
+
+    void add(@NonNull RecyclerView.ViewHolder holder) {
+        if (!mHolders.contains(holder)) {
+            mHolders.add(holder);
+        }
+    }
+
+    void remove(@NonNull RecyclerView.ViewHolder holder) {
+        mHolders.remove(holder);
+    }
+
+    /**
+     * @param cls the class of {@link RecyclerView.ViewHolder} of interest
+     * @return all the attached view holders of the given class, including the ones without a valid
+     * adapter position, such as while the adapter data set is being changed
+     */
+    @NonNull
+    <T extends IViewHolder> List<T> get(@NonNull Class<T> cls) {
+        final List<T> list = new ArrayList<>(mHolders.size());
+        for (RecyclerView.ViewHolder holder : mHolders) {
+            if (cls.isInstance(holder)) {
+                //noinspection unchecked
+                list.add((T) holder);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * @param cls   the class of {@link RecyclerView.ViewHolder} of interest
+     * @param start the start position
+     * @param end   the end position
+     * @return the attached view holders of the given class whose adapter position is between
+     * {@code start} and {@code end}
+     */
+    @NonNull
+    <T extends IViewHolder> List<T> get(@NonNull Class<T> cls, int start, int end) {
+        final List<T> list = new ArrayList<>(mHolders.size());
+        int position;
+        for (RecyclerView.ViewHolder holder : mHolders) {
+            if (!cls.isInstance(holder)) {
+                continue;
+            }
+
+            position = holder.getAdapterPosition();
+            if (position != RecyclerView.NO_POSITION && position >= start && position <= end) {
+                //noinspection unchecked
+                list.add((T) holder);
+            }
+        }
+        return list;
+    }
+
+    static void install(@NonNull RecyclerView recyclerView, @NonNull AttachedViewHolderRegistry registry) {
+        recyclerView.setTag(R.id.tenor_attached_view_holders, registry);
+    }
+
+    @Nullable
+    static AttachedViewHolderRegistry get(@NonNull RecyclerView recyclerView) {
+        final Object tag = recyclerView.getTag(R.id.tenor_attached_view_holders);
+        return tag instanceof AttachedViewHolderRegistry ? (AttachedViewHolderRegistry) tag : null;
+    }
+}
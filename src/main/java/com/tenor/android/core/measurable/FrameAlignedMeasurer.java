@@ -0,0 +1,249 @@
+package com.tenor.android.core.measurable;
+
+import android.graphics.Point;
+import android.graphics.Rect;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Message;
+import android.os.Process;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.WorkerThread;
+import android.support.v4.view.ViewCompat;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+import com.tenor.android.core.util.AbstractUIUtils;
+
+import java.util.Arrays;
+
+/**
+ * Measures the {@link IMeasurableViewHolder}s of a {@link RecyclerView} once per frame, with the
+ * visible fraction math off the main thread
+ * <p>
+ * On the next frame after a scroll, the bounds of the attached children are copied into primitive
+ * arrays on the main thread, their visible fractions are calculated on a background thread, and the
+ * results are posted back to the main thread as a single batch. Only one frame is in flight at a
+ * time, scrolls during it are measured on the frame after its results have been applied
+ * <p>
+ * {@link IMeasurableViewHolder}s other than {@link MeasurableViewHolder} are measured synchronously
+ * through {@link IMeasurableViewHolder#measure(RecyclerView)}
+ */
+@MainThread
+class FrameAlignedMeasurer implements Runnable, Handler.Callback {
+
+    private static final int MSG_MEASURE = 1;
+    private static final int MSG_MEASURED = 2;
+
+    /**
+     * left, top, width and height of each child
+     */
+    private static final int BOUNDS_SIZE = 4;
+
+    private static HandlerThread sThread;
+
+    private final RecyclerView mRecyclerView;
+    private final Handler mMainHandler;
+    private final Handler mWorkerHandler;
+    private final Rect mRect = new Rect();
+    private final Point mOffset = new Point();
+    private final int[] mLocation = new int[2];
+
+    /*
+     * Snapshot of a frame, written on the main thread before it is sent to the worker thread,
+     * and only read again on the main thread once its results have been posted back
+     */
+    private int mRvLeft;
+    private int mRvTop;
+    private int mRvRight;
+    private int mRvBottom;
+    private int mOffsetX;
+    private int mOffsetY;
+    private int mWindowX;
+    private int mWindowY;
+    private boolean mRtl;
+    private int mCount;
+    private int[] mBounds = new int[0];
+    private float[] mThresholds = new float[0];
+    private float[] mFractions = new float[0];
+    private int[] mPositions = new int[0];
+    private MeasurableViewHolder<?>[] mHolders = new MeasurableViewHolder<?>[0];
+
+    private boolean mFramePending;
+    private boolean mInFlight;
+    private boolean mDirty;
+    private int mGeneration;
+
+    FrameAlignedMeasurer(@NonNull RecyclerView recyclerView) {
+        mRecyclerView = recyclerView;
+        mMainHandler = new Handler(Looper.getMainLooper(), this);
+        mWorkerHandler = new Handler(getWorkerLooper(), this);
+    }
+
+    /**
+     * Measure the attached children on the next frame
+     */
+    void requestFrame() {
+        if (mInFlight) {
+            mDirty = true;
+            return;
+        }
+
+        if (!mFramePending) {
+            mFramePending = true;
+            // backed by Choreographer on API 16+, and by a delayed post on older ones
+            ViewCompat.postOnAnimation(mRecyclerView, this);
+        }
+    }
+
+    /**
+     * Drop the pending frame and the results of the one in flight, usually before measuring synchronously
+     */
+    void cancel() {
+        mGeneration++;
+        mDirty = false;
+        if (mFramePending) {
+            mFramePending = false;
+            mRecyclerView.removeCallbacks(this);
+        }
+    }
+
+    @Override
+    public void run() {
+        mFramePending = false;
+        if (snapshot()) {
+            mInFlight = true;
+            mWorkerHandler.obtainMessage(MSG_MEASURE, mGeneration, 0).sendToTarget();
+        }
+    }
+
+    @Override
+    public boolean handleMessage(Message msg) {
+        switch (msg.what) {
+            case MSG_MEASURE:
+                measure();
+                mMainHandler.obtainMessage(MSG_MEASURED, msg.arg1, 0).sendToTarget();
+                return true;
+            case MSG_MEASURED:
+                onMeasured(msg.arg1);
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * @return true if any {@link MeasurableViewHolder} needs to be measured on the worker thread
+     */
+    private boolean snapshot() {
+        final RecyclerView recyclerView = mRecyclerView;
+        if (!recyclerView.getGlobalVisibleRect(mRect, mOffset)) {
+            mRect.setEmpty();
+        }
+        recyclerView.getLocationInWindow(mLocation);
+
+        mRvLeft = mRect.left;
+        mRvTop = mRect.top;
+        mRvRight = mRect.right;
+        mRvBottom = mRect.bottom;
+        mOffsetX = mOffset.x;
+        mOffsetY = mOffset.y;
+        mWindowX = mLocation[0];
+        mWindowY = mLocation[1];
+        mRtl = AbstractUIUtils.isRightToLeft(recyclerView.getContext());
+
+        final int childCount = recyclerView.getChildCount();
+        ensureCapacity(childCount);
+
+        mCount = 0;
+        for (int i = 0; i < childCount; i++) {
+            final View child = recyclerView.getChildAt(i);
+            final RecyclerView.ViewHolder vh = recyclerView.getChildViewHolder(child);
+            if (!(vh instanceof MeasurableViewHolder)) {
+                if (vh instanceof IMeasurableViewHolder) {
+                    ((IMeasurableViewHolder) vh).measure(recyclerView);
+                }
+                continue;
+            }
+
+            final MeasurableViewHolder<?> holder = (MeasurableViewHolder<?>) vh;
+            if (!holder.isMeasurable()) {
+                holder.measure(recyclerView);
+                continue;
+            }
+
+            final int index = mCount * BOUNDS_SIZE;
+            mBounds[index] = child.getLeft() + (int) child.getTranslationX();
+            mBounds[index + 1] = child.getTop() + (int) child.getTranslationY();
+            mBounds[index + 2] = child.getMeasuredWidth();
+            mBounds[index + 3] = child.getMeasuredHeight();
+            mThresholds[mCount] = holder.getThreshold();
+            mPositions[mCount] = holder.getAdapterPosition();
+            mHolders[mCount] = holder;
+            mCount++;
+        }
+        return mCount > 0;
+    }
+
+    @WorkerThread
+    private void measure() {
+        for (int i = 0; i < mCount; i++) {
+            final int index = i * BOUNDS_SIZE;
+            final int left = mBounds[index];
+            final int top = mBounds[index + 1];
+            final int width = mBounds[index + 2];
+            final int height = mBounds[index + 3];
+
+            // the global visible rect of the child, clipped by the one of the RecyclerView
+            final int globalLeft = mOffsetX + left;
+            final int globalTop = mOffsetY + top;
+            final int visibleWidth = Math.min(globalLeft + width, mRvRight) - Math.max(globalLeft, mRvLeft);
+            final int visibleHeight = Math.min(globalTop + height, mRvBottom) - Math.max(globalTop, mRvTop);
+
+            mFractions[i] = MeasurableViewHolderHelper.calculateVisibleFraction(mRvLeft, mRvTop, mRvRight,
+                    mRvBottom, mWindowX + left, mWindowY + top, visibleWidth, visibleHeight, width, height,
+                    mThresholds[i], mRtl);
+        }
+    }
+
+    private void onMeasured(int generation) {
+        mInFlight = false;
+        if (generation == mGeneration) {
+            MeasurableViewHolder<?> holder;
+            for (int i = 0; i < mCount; i++) {
+                holder = mHolders[i];
+                // skip the view holders that have been recycled or rebound since the snapshot
+                if (holder.getAdapterPosition() == mPositions[i] && holder.isMeasurable()) {
+                    holder.onMeasured(mFractions[i]);
+                }
+            }
+        }
+        Arrays.fill(mHolders, 0, mCount, null);
+        mCount = 0;
+
+        if (mDirty) {
+            mDirty = false;
+            requestFrame();
+        }
+    }
+
+    private void ensureCapacity(int count) {
+        if (mHolders.length >= count) {
+            return;
+        }
+        mBounds = new int[count * BOUNDS_SIZE];
+        mThresholds = new float[count];
+        mFractions = new float[count];
+        mPositions = new int[count];
+        mHolders = new MeasurableViewHolder<?>[count];
+    }
+
+    private static synchronized Looper getWorkerLooper() {
+        if (sThread == null) {
+            sThread = new HandlerThread("FrameAlignedMeasurer", Process.THREAD_PRIORITY_BACKGROUND);
+            sThread.start();
+        }
+        return sThread.getLooper();
+    }
+}
@@ -23,6 +23,20 @@ public class MeasurableOnScrollListener extends RecyclerView.OnScrollListener {
     private int mMeasurable = TYPE_UNKNOWN;
     private int mScriptDirectionState = ScriptDirectionChecker.UNSPECIFIED;
 
+    @Nullable
+    private FrameAlignedMeasurer mFrameAlignedMeasurer;
+
+    /**
+     * @param measurer the {@link FrameAlignedMeasurer} to measure the view holders while dragging,
+     *                 or null to measure them synchronously on every scroll
+     */
+    void setFrameAlignedMeasurer(@Nullable FrameAlignedMeasurer measurer) {
+        if (mFrameAlignedMeasurer != null) {
+            mFrameAlignedMeasurer.cancel();
+        }
+        mFrameAlignedMeasurer = measurer;
+    }
+
     private boolean validateMeasurable(@Nullable RecyclerView recyclerView) {
         if (mMeasurable != TYPE_UNKNOWN) {
             return mMeasurable == TYPE_MEASURABLE;
@@ -69,6 +83,10 @@ public class MeasurableOnScrollListener extends RecyclerView.OnScrollListener {
                 break;
             case RecyclerView.SCROLL_STATE_IDLE:
                 mDragging = false;
+                if (mFrameAlignedMeasurer != null) {
+                    // the synchronous update below supersedes any frame still being measured
+                    mFrameAlignedMeasurer.cancel();
+                }
 
                 // perform final update on the range we have ever visited
                 updateVisibleRange(recyclerView);
@@ -111,6 +129,11 @@ public class MeasurableOnScrollListener extends RecyclerView.OnScrollListener {
     private void onDragged(@NonNull RecyclerView recyclerView) {
         updateVisibleRange(recyclerView);
 
+        if (mFrameAlignedMeasurer != null) {
+            mFrameAlignedMeasurer.requestFrame();
+            return;
+        }
+
         /*
          * Get the view holders that are currently visiting or just visited.  Using the range from
          * `AbstractLayoutManagerUtils.getVisibleRange(recyclerView);` should result in better
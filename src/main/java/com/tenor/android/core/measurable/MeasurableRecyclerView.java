@@ -1,6 +1,7 @@
 package com.tenor.android.core.measurable;
 
 import android.content.Context;
+import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.util.AttributeSet;
 
@@ -8,6 +9,11 @@ import com.tenor.android.core.widget.WeakRefRecyclerView;
 
 public class MeasurableRecyclerView extends WeakRefRecyclerView implements IMeasurableRecyclerView {
 
+    private final MeasurableOnScrollListener mOnScrollListener;
+    private final VisibleFractionCalculator mVisibleFractionCalculator;
+    @Nullable
+    private FrameAlignedMeasurer mFrameAlignedMeasurer;
+
     public MeasurableRecyclerView(Context context) {
         this(context, null);
     }
@@ -18,7 +24,44 @@ public class MeasurableRecyclerView extends WeakRefRecyclerView implements IMeas
 
     public MeasurableRecyclerView(Context context, @Nullable AttributeSet attrs, int defStyle) {
         super(context, attrs, defStyle);
-        MeasurableRecyclerViewHelper.onConstruct(this);
+        mOnScrollListener = MeasurableRecyclerViewHelper.onConstruct(this);
+        mVisibleFractionCalculator = new VisibleFractionCalculator(this);
+    }
+
+    @NonNull
+    VisibleFractionCalculator getVisibleFractionCalculator() {
+        return mVisibleFractionCalculator;
+    }
+
+    /**
+     * Measure the view holders once per frame while dragging, with the visible fraction math off
+     * the main thread, instead of synchronously on every scroll
+     * <p>
+     * Only the view holders extending {@link MeasurableViewHolder} benefit from it
+     *
+     * @param enabled true to measure the view holders once per frame off the main thread
+     */
+    public void setFrameAlignedMeasurement(boolean enabled) {
+        if (enabled == (mFrameAlignedMeasurer != null)) {
+            return;
+        }
+        mFrameAlignedMeasurer = enabled ? new FrameAlignedMeasurer(this) : null;
+        mOnScrollListener.setFrameAlignedMeasurer(mFrameAlignedMeasurer);
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        mVisibleFractionCalculator.attach();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        mVisibleFractionCalculator.detach();
+        if (mFrameAlignedMeasurer != null) {
+            mFrameAlignedMeasurer.cancel();
+        }
+        super.onDetachedFromWindow();
     }
 
     @Override
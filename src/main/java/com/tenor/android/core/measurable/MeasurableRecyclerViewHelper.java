@@ -10,14 +10,25 @@ import java.util.List;
 
 public class MeasurableRecyclerViewHelper {
 
-    public static void onConstruct(@NonNull final RecyclerView recyclerView) {
-        recyclerView.addOnScrollListener(new MeasurableOnScrollListener());
+    /**
+     * @return the {@link MeasurableOnScrollListener} added to the given {@link RecyclerView}
+     */
+    @NonNull
+    public static MeasurableOnScrollListener onConstruct(@NonNull final RecyclerView recyclerView) {
+        final MeasurableOnScrollListener listener = new MeasurableOnScrollListener();
+        recyclerView.addOnScrollListener(listener);
+
+        final AttachedViewHolderRegistry registry = new AttachedViewHolderRegistry();
+        AttachedViewHolderRegistry.install(recyclerView, registry);
 
         recyclerView.addOnChildAttachStateChangeListener(new RecyclerView.OnChildAttachStateChangeListener() {
 
             @Override
             public void onChildViewAttachedToWindow(View view) {
                 RecyclerView.ViewHolder vh = recyclerView.findContainingViewHolder(view);
+                if (vh != null) {
+                    registry.add(vh);
+                }
                 if (vh instanceof IMeasurableViewHolder) {
                     IMeasurableViewHolder holder = (IMeasurableViewHolder) vh;
                     holder.attachMeasurer(recyclerView);
@@ -27,12 +38,16 @@ public class MeasurableRecyclerViewHelper {
             @Override
             public void onChildViewDetachedFromWindow(View view) {
                 RecyclerView.ViewHolder vh = recyclerView.findContainingViewHolder(view);
+                if (vh != null) {
+                    registry.remove(vh);
+                }
                 if (vh instanceof IMeasurableViewHolder) {
                     IMeasurableViewHolder holder = (IMeasurableViewHolder) vh;
                     holder.detachMeasurer();
                 }
             }
         });
+        return listener;
     }
 
     /**
@@ -121,6 +136,9 @@ public class MeasurableRecyclerViewHelper {
     /**
      * Get all <b>attached</b> {@link RecyclerView.ViewHolder} in the given {@link RecyclerView}
      * that has implemented or extended the the given {@link T} class
+     * <p>
+     * Scales with the number of attached children on a {@link RecyclerView} set up by
+     * {@link #onConstruct(RecyclerView)}, and with the number of adapter items otherwise
      *
      * @param recyclerView the given {@link RecyclerView}
      * @param cls          the class of {@link android.support.v7.widget.RecyclerView.ViewHolder} of interest in the given {@link RecyclerView}
@@ -131,6 +149,11 @@ public class MeasurableRecyclerViewHelper {
             return list;
         }
 
+        final AttachedViewHolderRegistry registry = AttachedViewHolderRegistry.get(recyclerView);
+        if (registry != null) {
+            return registry.get(cls);
+        }
+
         final int end = recyclerView.getAdapter().getItemCount() - 1;
         return getViewHolders(recyclerView, cls, 0, end);
     }
@@ -146,17 +169,22 @@ public class MeasurableRecyclerViewHelper {
      * @param end          the end position
      */
     public static <T extends IViewHolder> List<T> getViewHolders(@Nullable RecyclerView recyclerView, Class<T> cls, int start, int end) {
-        final int capacity = Math.max(end - start + 1, 0);
-        final List<T> list = new ArrayList<>(capacity);
         if (recyclerView == null || recyclerView.getAdapter() == null) {
-            return list;
+            return new ArrayList<>();
         }
 
         final int count = recyclerView.getAdapter().getItemCount();
         if (start < 0 || end >= count) {
-            return list;
+            return new ArrayList<>();
         }
 
+        final AttachedViewHolderRegistry registry = AttachedViewHolderRegistry.get(recyclerView);
+        if (registry != null) {
+            return registry.get(cls, start, end);
+        }
+
+        final List<T> list = new ArrayList<>(Math.max(end - start + 1, 0));
+
         RecyclerView.ViewHolder holder;
         for (int i = start; i <= end; i++) {
             holder = recyclerView.findViewHolderForAdapterPosition(i);
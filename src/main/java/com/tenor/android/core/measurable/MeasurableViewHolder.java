@@ -98,7 +98,7 @@ public abstract class MeasurableViewHolder<CTX extends IBaseView> extends WeakRe
 
     @Override
     public synchronized float measure(@Nullable RecyclerView recyclerView) {
-        if (!isAttached() || isDetached() || !mInitialized || getAdapterPosition() == -1) {
+        if (!isMeasurable()) {
             mMeasurableViewHolderData.setVisibleFraction(0f);
             return 0f;
         }
@@ -108,14 +108,43 @@ public abstract class MeasurableViewHolder<CTX extends IBaseView> extends WeakRe
             throw new IllegalStateException("ViewHolder must be attached to a non-null RecyclerView");
         }
 
-        float visibleFraction = MeasurableViewHolderHelper.calculateVisibleFraction(recyclerView, itemView, mMeasurableViewHolderData.getThreshold());
+        final float threshold = mMeasurableViewHolderData.getThreshold();
+        final float visibleFraction;
+        if (recyclerView instanceof MeasurableRecyclerView) {
+            // reuses the scratch state of the RecyclerView instead of allocating on every scroll
+            visibleFraction = ((MeasurableRecyclerView) recyclerView).getVisibleFractionCalculator()
+                    .calculate(itemView, threshold);
+        } else {
+            visibleFraction = MeasurableViewHolderHelper.calculateVisibleFraction(recyclerView, itemView, threshold);
+        }
+        onMeasured(visibleFraction);
+        return visibleFraction;
+    }
+
+    /**
+     * @return true if the visible fraction of this view holder can be measured
+     */
+    synchronized boolean isMeasurable() {
+        return isAttached() && !isDetached() && mInitialized && getAdapterPosition() != -1;
+    }
+
+    synchronized float getThreshold() {
+        return mMeasurableViewHolderData.getThreshold();
+    }
+
+    /**
+     * Update {@link MeasurableViewHolderData} with a visible fraction measured elsewhere, such as
+     * by {@link FrameAlignedMeasurer}
+     *
+     * @param visibleFraction the visible fraction of the item view
+     */
+    synchronized void onMeasured(float visibleFraction) {
         mMeasurableViewHolderData.setVisibleFraction(visibleFraction);
 
         if (mMeasurableViewHolderData.isVisualPositionUnknown()) {
             final String visualPosition = AbstractLayoutManagerUtils.getVisualPosition(getContext(), itemView);
             mMeasurableViewHolderData.setVisualPosition(visualPosition);
         }
-        return visibleFraction;
     }
 
     @CallSuper
@@ -1,6 +1,7 @@
 package com.tenor.android.core.measurable;
 
 import android.content.Context;
+import android.os.SystemClock;
 import android.support.annotation.FloatRange;
 import android.support.annotation.IntRange;
 import android.support.annotation.NonNull;
@@ -15,22 +16,29 @@ import com.tenor.android.core.weakref.WeakRefObject;
 
 import java.io.Serializable;
 
+/**
+ * Impression accumulator of an {@link IMeasurableViewHolder}
+ * <p>
+ * Updated from the main thread only, and published through volatile fields instead of locks, so
+ * {@link #setVisibleFraction(float)} costs no monitor on every scroll. Durations are measured with
+ * {@link SystemClock#elapsedRealtime()}, which is not affected by wall clock changes
+ */
 public class MeasurableViewHolderData<VH extends IMeasurableViewHolder> extends WeakRefObject<VH> implements Serializable {
-    private static final long serialVersionUID = 675815364606601681L;
+    private static final long serialVersionUID = 6424581918093826913L;
 
     private int mVisibility = View.INVISIBLE;
 
     @IntRange(from = 0)
-    private int mAccumulatedVisibleDuration = 0;
+    private volatile long mAccumulatedVisibleDuration = 0;
 
     @IntRange(from = 0)
-    private int mAccumulatedVisibleCount = 0;
+    private volatile int mAccumulatedVisibleCount = 0;
 
     @IntRange(from = -1)
-    private long mTimestampOnVisible = -1;
+    private volatile long mTimestampOnVisible = -1;
 
     @FloatRange(from = 0f, to = 1f)
-    private float mVisibleFraction = 0f;
+    private volatile float mVisibleFraction = 0f;
 
     @ItemVisualPosition.Value
     private String mVisualPosition = ItemVisualPosition.UNKNOWN;
@@ -97,24 +105,24 @@ public class MeasurableViewHolderData<VH extends IMeasurableViewHolder> extends
         mVisualPosition = visualPosition;
     }
 
-    public synchronized void clear() {
+    public void clear() {
         mVisibility = View.INVISIBLE;
         resetTimestamp();
         resetCounts();
         mVisibleFraction = 0f;
     }
 
-    private synchronized void resetCounts() {
+    private void resetCounts() {
         mAccumulatedVisibleDuration = 0;
         mAccumulatedVisibleCount = 0;
     }
 
-    private synchronized void resetTimestamp() {
+    private void resetTimestamp() {
         mTimestampOnVisible = -1;
     }
 
-    public synchronized void updateTimestamp() {
-        mTimestampOnVisible = System.currentTimeMillis();
+    public void updateTimestamp() {
+        mTimestampOnVisible = SystemClock.elapsedRealtime();
     }
 
     public int getAdapterPosition() {
@@ -136,11 +144,14 @@ public class MeasurableViewHolderData<VH extends IMeasurableViewHolder> extends
         return mAdapterPosition;
     }
 
-    public synchronized int getAccumulatedVisibleDuration() {
+    /**
+     * @return the accumulated visible duration in milliseconds
+     */
+    public long getAccumulatedVisibleDuration() {
         return mAccumulatedVisibleDuration;
     }
 
-    public synchronized int getAccumulatedVisibleCount() {
+    public int getAccumulatedVisibleCount() {
         return mAccumulatedVisibleCount;
     }
 
@@ -149,21 +160,19 @@ public class MeasurableViewHolderData<VH extends IMeasurableViewHolder> extends
         return mVisibleFraction;
     }
 
-    public synchronized void pause() {
+    public void pause() {
         // becomes invisible
-        if (mTimestampOnVisible < 0) {
-            return;
-        }
-        final long duration = System.currentTimeMillis() - mTimestampOnVisible;
-        mAccumulatedVisibleDuration += duration;
-        resetTimestamp();
+        accumulate();
     }
 
-    public synchronized void resume() {
-        updateTimestamp();
+    public void resume() {
+        // only count the time from now on if the view is still visible
+        if (mVisibleFraction >= mThreshold) {
+            updateTimestamp();
+        }
     }
 
-    public synchronized void flush(@NonNull Context context) {
+    public void flush(@NonNull Context context) {
         setVisibleFraction(0f);
 
         final boolean useful = mEnhancedContent
@@ -175,7 +184,7 @@ public class MeasurableViewHolderData<VH extends IMeasurableViewHolder> extends
         clear();
     }
 
-    public synchronized void setVisibleFraction(@FloatRange(from = 0f, to = 1f) float visibleFraction) {
+    public void setVisibleFraction(@FloatRange(from = 0f, to = 1f) float visibleFraction) {
 
         final boolean wasVisible = mVisibleFraction >= mThreshold;
         final boolean isVisible = visibleFraction >= mThreshold;
@@ -202,13 +211,24 @@ public class MeasurableViewHolderData<VH extends IMeasurableViewHolder> extends
     }
 
     private void becomesInvisible() {
-        if (mTimestampOnVisible < 0) {
-            return;
+        if (accumulate()) {
+            AbstractLogUtils.e(this, "==> item[" + getAdapterPosition() + "] becomes Invisible");
+        }
+    }
+
+    /**
+     * Add the time since the view became visible to the accumulated visible duration
+     *
+     * @return true if the view was visible
+     */
+    private boolean accumulate() {
+        final long timestamp = mTimestampOnVisible;
+        if (timestamp < 0) {
+            return false;
         }
-        final long duration = System.currentTimeMillis() - mTimestampOnVisible;
-        mAccumulatedVisibleDuration += duration;
+        mAccumulatedVisibleDuration += Math.max(SystemClock.elapsedRealtime() - timestamp, 0);
         resetTimestamp();
-        AbstractLogUtils.e(this, "==> item[" + getAdapterPosition() + "] becomes Invisible");
+        return true;
     }
 
     public String toString() {
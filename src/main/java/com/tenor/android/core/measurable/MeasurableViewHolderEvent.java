@@ -2,44 +2,51 @@ package com.tenor.android.core.measurable;
 
 import android.support.annotation.NonNull;
 
-import com.google.gson.annotations.SerializedName;
+import com.google.gson.annotations.JsonAdapter;
 import com.tenor.android.core.constant.ItemVisualPosition;
 import com.tenor.android.core.constant.ViewAction;
 
 import java.io.Serializable;
-import java.util.Locale;
 
+/**
+ * An impression event uploaded by {@link ViewHolderDataManager}
+ * <p>
+ * Numbers are kept as primitives and only turned into text by {@link MeasurableViewHolderEventTypeAdapter},
+ * which any {@link com.google.gson.Gson} picks up from the annotation
+ */
+@JsonAdapter(MeasurableViewHolderEventTypeAdapter.class)
 public class MeasurableViewHolderEvent implements Serializable {
 
-    private static final long serialVersionUID = 2288577105348192434L;
+    private static final long serialVersionUID = -5410939201548765025L;
 
-    @SerializedName("source_id")
-    private final String mSourceId;
+    /**
+     * Value of {@link #mDuration} and {@link #mVisibleFraction} when they have not been measured
+     */
+    static final int UNKNOWN = -1;
 
-    @SerializedName("timestamp")
-    private final String mTimestamp;
+    String mSourceId;
 
-    @SerializedName("action")
-    private final String mAction;
+    long mTimestamp;
 
-    @SerializedName("timezone")
-    private final String mUtcOffset;
+    String mAction;
+
+    String mUtcOffset;
 
     @ItemVisualPosition.Value
-    @SerializedName("visual_pos")
-    private final String mVisualPosition;
+    String mVisualPosition;
+
+    long mDuration = UNKNOWN;
 
-    @SerializedName("elapsed_ms")
-    private String mDuration;
+    float mVisibleFraction = UNKNOWN;
 
-    @SerializedName("visible_fraction")
-    private String mVisibleFraction;
+    MeasurableViewHolderEvent() {
+    }
 
     public MeasurableViewHolderEvent(@NonNull MeasurableViewHolderData data,
                                      @NonNull String utcOffset) {
         this(data.getId(), ViewAction.VIEW, utcOffset, data.getVisualPosition());
-        mDuration = String.format(Locale.US, "%d", data.getAccumulatedVisibleDuration());
-        mVisibleFraction = String.format(Locale.US, "%f", data.getVisibleFraction());
+        mDuration = data.getAccumulatedVisibleDuration();
+        mVisibleFraction = data.getVisibleFraction();
     }
 
     public MeasurableViewHolderEvent(@NonNull String sourceId,
@@ -47,7 +54,7 @@ public class MeasurableViewHolderEvent implements Serializable {
                                      @NonNull String utcOffset,
                                      @ItemVisualPosition.Value String visualPosition) {
         mSourceId = sourceId;
-        mTimestamp = String.format(Locale.US, "%d", System.currentTimeMillis());
+        mTimestamp = System.currentTimeMillis();
         mAction = action;
         mUtcOffset = utcOffset;
         mVisualPosition = visualPosition;
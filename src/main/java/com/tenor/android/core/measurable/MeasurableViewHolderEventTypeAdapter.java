@@ -0,0 +1,120 @@
+package com.tenor.android.core.measurable;
+
+import android.support.annotation.NonNull;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.tenor.android.core.util.AbstractJsonUtils;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Hand-written {@link TypeAdapter} of {@link MeasurableViewHolderEvent}
+ * <p>
+ * Writes the same JSON as the previous reflective adapter, numbers included as strings, such as
+ * {@code "visible_fraction": "0.500000"}, straight from the primitive fields and, for any actual
+ * fraction, without {@link String#format(String, Object...)}
+ */
+public class MeasurableViewHolderEventTypeAdapter extends TypeAdapter<MeasurableViewHolderEvent> {
+
+    /**
+     * Number of decimals of {@code visible_fraction}, as written by {@code "%f"}
+     */
+    private static final int FRACTION_DIGITS = 6;
+    private static final int FRACTION_SCALE = 1000000;
+
+    /**
+     * Beyond this, and for NaN and infinities, {@link #formatFraction(float)} falls back to {@code "%f"},
+     * it is never hit by an actual fraction
+     */
+    private static final float MAX_FRACTION = 1000000f;
+
+    @Override
+    public void write(JsonWriter out, MeasurableViewHolderEvent value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        AbstractJsonUtils.write(out, "source_id", value.mSourceId);
+        out.name("timestamp").value(Long.toString(value.mTimestamp));
+        AbstractJsonUtils.write(out, "action", value.mAction);
+        AbstractJsonUtils.write(out, "timezone", value.mUtcOffset);
+        AbstractJsonUtils.write(out, "visual_pos", value.mVisualPosition);
+        if (value.mDuration != MeasurableViewHolderEvent.UNKNOWN) {
+            out.name("elapsed_ms").value(Long.toString(value.mDuration));
+        }
+        if (value.mVisibleFraction != MeasurableViewHolderEvent.UNKNOWN) {
+            out.name("visible_fraction").value(formatFraction(value.mVisibleFraction));
+        }
+        out.endObject();
+    }
+
+    @Override
+    public MeasurableViewHolderEvent read(JsonReader in) throws IOException {
+        if (AbstractJsonUtils.nextNull(in)) {
+            return null;
+        }
+
+        final MeasurableViewHolderEvent value = new MeasurableViewHolderEvent();
+        in.beginObject();
+        while (in.hasNext()) {
+            // the numbers are written as strings, which JsonReader parses as numbers as well
+            switch (in.nextName()) {
+                case "source_id":
+                    value.mSourceId = AbstractJsonUtils.nextString(in);
+                    break;
+                case "timestamp":
+                    value.mTimestamp = AbstractJsonUtils.nextLong(in, 0);
+                    break;
+                case "action":
+                    value.mAction = AbstractJsonUtils.nextString(in);
+                    break;
+                case "timezone":
+                    value.mUtcOffset = AbstractJsonUtils.nextString(in);
+                    break;
+                case "visual_pos":
+                    value.mVisualPosition = AbstractJsonUtils.nextString(in);
+                    break;
+                case "elapsed_ms":
+                    value.mDuration = AbstractJsonUtils.nextLong(in, MeasurableViewHolderEvent.UNKNOWN);
+                    break;
+                case "visible_fraction":
+                    value.mVisibleFraction = (float) AbstractJsonUtils.nextDouble(in, MeasurableViewHolderEvent.UNKNOWN);
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return value;
+    }
+
+    /**
+     * @return the given fraction with {@link #FRACTION_DIGITS} decimals, the same as {@code "%f"},
+     * including the sign of {@code -0f} and of negative fractions rounded to zero
+     */
+    @NonNull
+    static String formatFraction(float fraction) {
+        if (!(Math.abs(fraction) < MAX_FRACTION)) {
+            return String.format(Locale.US, "%f", fraction);
+        }
+
+        final long scaled = Math.round(Math.abs((double) fraction) * FRACTION_SCALE);
+        final StringBuilder builder = new StringBuilder(FRACTION_DIGITS + 4);
+        if (Math.copySign(1f, fraction) < 0) {
+            builder.append('-');
+        }
+        builder.append(scaled / FRACTION_SCALE).append('.');
+
+        final String decimals = Long.toString(scaled % FRACTION_SCALE);
+        for (int i = decimals.length(); i < FRACTION_DIGITS; i++) {
+            builder.append('0');
+        }
+        return builder.append(decimals).toString();
+    }
+}
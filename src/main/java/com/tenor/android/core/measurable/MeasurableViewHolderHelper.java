@@ -54,8 +54,36 @@ public class MeasurableViewHolderHelper {
         itemView.getLocationInWindow(location);
 
         final boolean rtl = AbstractUIUtils.isRightToLeft(recyclerView.getContext());
-        final int width = itemView.getMeasuredWidth();
-        final int height = itemView.getMeasuredHeight();
+        return calculateVisibleFraction(rvRect.left, rvRect.top, rvRect.right, rvRect.bottom,
+                location[0], location[1], ivRect.width(), ivRect.height(),
+                itemView.getMeasuredWidth(), itemView.getMeasuredHeight(), threshold, rtl);
+    }
+
+    /**
+     * Get the visible fraction of an item view from its bounds, without touching any {@link View},
+     * so it can be called from any thread
+     *
+     * @param rvLeft        the left of the global visible rect of the {@link RecyclerView}
+     * @param rvTop         the top of the global visible rect of the {@link RecyclerView}
+     * @param rvRight       the right of the global visible rect of the {@link RecyclerView}
+     * @param rvBottom      the bottom of the global visible rect of the {@link RecyclerView}
+     * @param x             the x of the item view location in window
+     * @param y             the y of the item view location in window
+     * @param visibleWidth  the width of the global visible rect of the item view
+     * @param visibleHeight the height of the global visible rect of the item view
+     * @param width         the measured width of the item view
+     * @param height        the measured height of the item view
+     * @param threshold     the percentage of a view's area to be shown in order to consider it as being viewed
+     * @param rtl           true if the layout is right to left
+     * @return the visible fraction of the item view
+     */
+    @FloatRange(from = 0.01f, to = 1f)
+    static float calculateVisibleFraction(int rvLeft, int rvTop, int rvRight, int rvBottom,
+                                          int x, int y, int visibleWidth, int visibleHeight,
+                                          int width, int height, float threshold, boolean rtl) {
+        if (visibleWidth <= 0 || visibleHeight <= 0) {
+            return 0.01f;
+        }
 
         // ratio for left bound
         final float leftBoundRatio;
@@ -67,22 +95,22 @@ public class MeasurableViewHolderHelper {
             leftBoundRatio = threshold;
         }
 
-        final int left = (int) (rvRect.left - leftBoundRatio * width);
-        final int right = (int) (rvRect.right - (1f - leftBoundRatio) * width);
-        final int top = (int) (rvRect.top - (1f - threshold) * height);
-        final int bottom = (int) (rvRect.bottom - threshold * height);
+        final int left = (int) (rvLeft - leftBoundRatio * width);
+        final int right = (int) (rvRight - (1f - leftBoundRatio) * width);
+        final int top = (int) (rvTop - (1f - threshold) * height);
+        final int bottom = (int) (rvBottom - threshold * height);
 
         // horizontally out of bound
-        final boolean hoob = location[0] < left || location[0] > right;
+        final boolean hoob = x < left || x > right;
 
         // vertically out of bound
-        final boolean voob = location[1] < top || location[1] > bottom;
+        final boolean voob = y < top || y > bottom;
         if (hoob || voob) {
             return 0.01f;
         }
 
-        float wRatio = (float) ivRect.width() / width;
-        float hRatio = (float) ivRect.height() / height;
+        float wRatio = (float) visibleWidth / width;
+        float hRatio = (float) visibleHeight / height;
 
         /*
          * the non-moving direction will be always 1.0f,
@@ -4,23 +4,28 @@ import android.content.Context;
 import android.support.annotation.NonNull;
 
 import com.tenor.android.core.concurrent.ConcurrentFifoQueue;
-import com.tenor.android.core.network.ApiClient;
+import com.tenor.android.core.concurrent.OverflowPolicy;
+import com.tenor.android.core.concurrent.RingBufferFifoQueue;
 import com.tenor.android.core.util.AbstractLocaleUtils;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * Queue and send {@link MeasurableViewHolderData}
+ * <p>
+ * Queued events are journaled on disk and uploaded in batches by a {@link ViewHolderEventFlusher},
+ * so they survive process death and the calling thread never waits on disk or network I/O
+ * <p>
+ * The queue is backed by a lock-free {@link RingBufferFifoQueue}, so pushing an event never contends
+ * on a monitor; once it is full, the oldest events are dropped
  */
 public class ViewHolderDataManager extends ConcurrentFifoQueue<MeasurableViewHolderEvent>
         implements IViewHolderDataManager {
 
-    private static final int BATCH_SIZE = 5;
-    private static final int MAX_POOL_SIZE = 6 * BATCH_SIZE;
+    private static final int CAPACITY = 1024;
+
+    private volatile ViewHolderEventFlusher mFlusher;
 
     public ViewHolderDataManager() {
-        super();
+        super(new RingBufferFifoQueue<MeasurableViewHolderEvent>(CAPACITY, OverflowPolicy.DROP_OLDEST));
     }
 
     /**
@@ -29,39 +34,37 @@ public class ViewHolderDataManager extends ConcurrentFifoQueue<MeasurableViewHol
      * @param context the context
      * @param event   the serialized {@link MeasurableViewHolderEvent}
      */
-    public synchronized void push(@NonNull final Context context,
-                                  @NonNull final MeasurableViewHolderEvent event) {
+    public void push(@NonNull final Context context,
+                     @NonNull final MeasurableViewHolderEvent event) {
         try {
             add(event);
         } catch (Throwable ignored) {
         }
-
-        if (size() >= MAX_POOL_SIZE) {
-            // flush
-            send(context, Integer.MAX_VALUE);
-        }
-
-        if (size() >= BATCH_SIZE) {
-            send(context, BATCH_SIZE);
-        }
+        getFlusher(context).drain();
     }
 
     /**
-     * Send analytic events to server
+     * Send analytic events to server now, instead of waiting for a full batch
      *
      * @param context   the context
-     * @param batchSize the size of the analytic data batch
+     * @param batchSize the maximum number of pending events to send now, {@link Integer#MAX_VALUE} for all of them
      */
-    public synchronized void send(@NonNull final Context context, int batchSize) {
+    public void send(@NonNull final Context context, int batchSize) {
+        getFlusher(context).flush(batchSize);
+    }
 
-        List<MeasurableViewHolderEvent> list = new ArrayList<>();
-        try {
-            while (size() > 0 && list.size() < batchSize) {
-                list.add(poll());
+    @NonNull
+    private ViewHolderEventFlusher getFlusher(@NonNull Context context) {
+        ViewHolderEventFlusher flusher = mFlusher;
+        if (flusher != null) {
+            return flusher;
+        }
+
+        synchronized (this) {
+            if (mFlusher == null) {
+                mFlusher = new ViewHolderEventFlusher(context, this);
             }
-            // TODO: make this a schedule task in the future
-            ApiClient.registerActions(context, list);
-        } catch (Throwable throwable) {
+            return mFlusher;
         }
     }
 
@@ -70,13 +73,20 @@ public class ViewHolderDataManager extends ConcurrentFifoQueue<MeasurableViewHol
      * Static Methods
      * ==============
      */
-    private static ViewHolderDataManager sManager;
+    private static volatile ViewHolderDataManager sManager;
 
     public static ViewHolderDataManager get() {
-        if (sManager == null) {
-            sManager = new ViewHolderDataManager();
+        ViewHolderDataManager manager = sManager;
+        if (manager != null) {
+            return manager;
+        }
+
+        synchronized (ViewHolderDataManager.class) {
+            if (sManager == null) {
+                sManager = new ViewHolderDataManager();
+            }
+            return sManager;
         }
-        return sManager;
     }
 
     /**
@@ -85,8 +95,8 @@ public class ViewHolderDataManager extends ConcurrentFifoQueue<MeasurableViewHol
      * @param context the context
      * @param data    the serialized {@link MeasurableViewHolderData}
      */
-    public synchronized static void push(@NonNull final Context context,
-                                         @NonNull final MeasurableViewHolderData data) {
+    public static void push(@NonNull final Context context,
+                            @NonNull final MeasurableViewHolderData data) {
         final String utcOffset = AbstractLocaleUtils.getUtcOffset(context);
         get().push(context, new MeasurableViewHolderEvent(data, utcOffset));
     }
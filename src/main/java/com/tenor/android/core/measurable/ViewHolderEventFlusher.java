@@ -0,0 +1,254 @@
+package com.tenor.android.core.measurable;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Message;
+import android.os.Process;
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+
+import com.tenor.android.core.concurrent.IConcurrentFifoQueue;
+import com.tenor.android.core.network.ApiClient;
+import com.tenor.android.core.util.AbstractGsonUtils;
+import com.tenor.android.core.util.AbstractNetworkUtils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Moves the queued {@link MeasurableViewHolderEvent}s into a {@link ViewHolderEventJournal} and
+ * uploads them in batches from a background {@link HandlerThread}
+ * <p>
+ * A batch is uploaded once {@link #BATCH_SIZE} events are pending or the oldest of them is
+ * {@link #MAX_AGE} old. A failed upload is retried with an exponential backoff, and while the
+ * network is down the events keep piling up, so they go out in fewer, larger requests
+ * <p>
+ * {@link #flush(int)} uploads the given number of pending events right away, the others keep
+ * waiting for their batch
+ */
+class ViewHolderEventFlusher implements Handler.Callback {
+
+    private static final String FILE_NAME = "tenor_view_holder_events.journal";
+
+    /**
+     * Upload as soon as this many events are pending
+     */
+    private static final int BATCH_SIZE = 20;
+
+    /**
+     * Maximum number of events in a single upload
+     */
+    private static final int MAX_BATCH_SIZE = 100;
+
+    /**
+     * Upload pending events once the oldest of them is this old
+     */
+    private static final long MAX_AGE = TimeUnit.SECONDS.toMillis(30);
+
+    private static final long MIN_BACKOFF = TimeUnit.SECONDS.toMillis(5);
+    private static final long MAX_BACKOFF = TimeUnit.MINUTES.toMillis(5);
+
+    private static final int MSG_DRAIN = 1;
+    private static final int MSG_FLUSH = 2;
+    private static final int MSG_UPLOADED = 3;
+
+    private static final int RESULT_SENT = 0;
+    private static final int RESULT_DROPPED = 1;
+    private static final int RESULT_RETRY = 2;
+
+    private final Context mContext;
+    private final IConcurrentFifoQueue<MeasurableViewHolderEvent> mQueue;
+    private final ViewHolderEventJournal mJournal;
+    private final Handler mHandler;
+    private final AtomicBoolean mDrainPending = new AtomicBoolean();
+    private final AtomicInteger mFlushRequested = new AtomicInteger();
+
+    // only accessed from the flusher thread
+    private boolean mUploading;
+    private int mFlushCount;
+    private long mBackoff;
+    private long mRetryAt;
+
+    ViewHolderEventFlusher(@NonNull Context context, @NonNull IConcurrentFifoQueue<MeasurableViewHolderEvent> queue) {
+        mContext = context.getApplicationContext();
+        mQueue = queue;
+        mJournal = new ViewHolderEventJournal(new File(mContext.getFilesDir(), FILE_NAME));
+
+        final HandlerThread thread = new HandlerThread("ViewHolderEventFlusher", Process.THREAD_PRIORITY_BACKGROUND);
+        thread.start();
+        mHandler = new Handler(thread.getLooper(), this);
+
+        // pick up the events left over by the previous process
+        drain();
+    }
+
+    /**
+     * Move the queued events into the journal, off the calling thread
+     */
+    void drain() {
+        if (mDrainPending.compareAndSet(false, true)) {
+            mHandler.sendEmptyMessage(MSG_DRAIN);
+        }
+    }
+
+    /**
+     * Upload pending events now, regardless of the batch size and age
+     *
+     * @param count the maximum number of events to upload now, {@link Integer#MAX_VALUE} for all of them
+     */
+    void flush(int count) {
+        if (count <= 0) {
+            return;
+        }
+
+        int requested;
+        do {
+            requested = mFlushRequested.get();
+        } while (!mFlushRequested.compareAndSet(requested, saturatedAdd(requested, count)));
+
+        drain();
+        mHandler.sendEmptyMessage(MSG_FLUSH);
+    }
+
+    @Override
+    public boolean handleMessage(Message msg) {
+        switch (msg.what) {
+            case MSG_DRAIN:
+                mDrainPending.set(false);
+                onDrain();
+                return true;
+            case MSG_FLUSH:
+                upload();
+                return true;
+            case MSG_UPLOADED:
+                onUploaded(msg.arg1, msg.arg2);
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private void onDrain() {
+        final List<String> lines = new ArrayList<>(Math.max(mQueue.size(), 0));
+        MeasurableViewHolderEvent event;
+        while ((event = mQueue.poll()) != null) {
+            lines.add(AbstractGsonUtils.getInstance().toJson(event));
+        }
+
+        mJournal.append(lines);
+        schedule();
+    }
+
+    private void schedule() {
+        if (mUploading || mJournal.size() == 0) {
+            return;
+        }
+
+        final long now = SystemClock.elapsedRealtime();
+        if (now < mRetryAt) {
+            // backing off, the retry has already been scheduled
+            return;
+        }
+
+        if (mJournal.size() >= BATCH_SIZE) {
+            mHandler.removeMessages(MSG_FLUSH);
+            mHandler.sendEmptyMessage(MSG_FLUSH);
+        } else if (!mHandler.hasMessages(MSG_FLUSH)) {
+            final long delay = mJournal.getOldestTimestamp() + MAX_AGE - now;
+            mHandler.sendEmptyMessageDelayed(MSG_FLUSH, Math.max(delay, 0));
+        }
+    }
+
+    private void upload() {
+        mHandler.removeMessages(MSG_FLUSH);
+        mFlushCount = saturatedAdd(mFlushCount, mFlushRequested.getAndSet(0));
+        if (mUploading || mJournal.size() == 0) {
+            return;
+        }
+
+        if (!AbstractNetworkUtils.isNetworkConnected(mContext)) {
+            retry();
+            return;
+        }
+
+        final int max = mFlushCount > 0 ? Math.min(mFlushCount, MAX_BATCH_SIZE) : MAX_BATCH_SIZE;
+        final List<String> lines = mJournal.peek(max);
+        final StringBuilder data = new StringBuilder("[");
+        for (int i = 0; i < lines.size(); i++) {
+            if (i > 0) {
+                data.append(',');
+            }
+            data.append(lines.get(i));
+        }
+        data.append(']');
+
+        final int count = lines.size();
+        mUploading = true;
+        try {
+            ApiClient.registerActions(mContext, data.toString(), new Callback<Void>() {
+                @Override
+                public void onResponse(Call<Void> call, Response<Void> response) {
+                    final int result;
+                    if (response.isSuccessful()) {
+                        result = RESULT_SENT;
+                    } else if (response.code() >= 400 && response.code() < 500
+                            && response.code() != 408 && response.code() != 429) {
+                        // the batch is rejected as is, retrying would not help
+                        result = RESULT_DROPPED;
+                    } else {
+                        result = RESULT_RETRY;
+                    }
+                    mHandler.obtainMessage(MSG_UPLOADED, count, result).sendToTarget();
+                }
+
+                @Override
+                public void onFailure(Call<Void> call, Throwable throwable) {
+                    mHandler.obtainMessage(MSG_UPLOADED, count, RESULT_RETRY).sendToTarget();
+                }
+            });
+        } catch (Throwable throwable) {
+            // ApiClient has not been initialized yet
+            mUploading = false;
+            retry();
+        }
+    }
+
+    private void onUploaded(int count, int result) {
+        mUploading = false;
+        if (result == RESULT_RETRY) {
+            retry();
+            return;
+        }
+
+        mJournal.remove(count);
+        mBackoff = 0;
+        mRetryAt = 0;
+        mFlushCount = Math.max(mFlushCount - count, 0);
+        if (mFlushCount > 0 && mJournal.size() > 0) {
+            mHandler.sendEmptyMessage(MSG_FLUSH);
+        } else {
+            mFlushCount = 0;
+            schedule();
+        }
+    }
+
+    private static int saturatedAdd(int a, int b) {
+        final long sum = (long) a + b;
+        return sum > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) sum;
+    }
+
+    private void retry() {
+        mBackoff = mBackoff > 0 ? Math.min(mBackoff * 2, MAX_BACKOFF) : MIN_BACKOFF;
+        mRetryAt = SystemClock.elapsedRealtime() + mBackoff;
+        mHandler.sendEmptyMessageDelayed(MSG_FLUSH, mBackoff);
+    }
+}
@@ -0,0 +1,214 @@
+package com.tenor.android.core.measurable;
+
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.support.annotation.WorkerThread;
+
+import com.tenor.android.core.util.AbstractIOUtils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Append-only on-disk journal of serialized {@link MeasurableViewHolderEvent}s, one JSON object per line
+ * <p>
+ * Events are appended as soon as they are queued, so they survive process death, and the journal
+ * is only rewritten, through an atomic rename, once a batch has been uploaded. A line torn by a
+ * crash in the middle of an append is dropped on the next load
+ * <p>
+ * Not thread-safe, only access it from the thread of {@link ViewHolderEventFlusher}
+ */
+@WorkerThread
+class ViewHolderEventJournal {
+
+    /**
+     * The oldest events are dropped beyond this many pending events
+     */
+    private static final int MAX_EVENTS = 1000;
+
+    private static final String UTF_8 = "UTF-8";
+
+    private final File mFile;
+    private final ArrayDeque<String> mLines = new ArrayDeque<>();
+    /**
+     * The {@link SystemClock#elapsedRealtime()} at which each of {@link #mLines} was queued
+     */
+    private final ArrayDeque<Long> mTimestamps = new ArrayDeque<>();
+    private boolean mLoaded;
+
+    /**
+     * Number of the peeked events which have been dropped on overflow while being uploaded
+     */
+    private int mDroppedPeeked;
+
+    ViewHolderEventJournal(@NonNull File file) {
+        mFile = file;
+    }
+
+    /**
+     * @return number of pending events
+     */
+    int size() {
+        load();
+        return mLines.size();
+    }
+
+    /**
+     * @return the {@link SystemClock#elapsedRealtime()} at which the oldest pending event was queued
+     */
+    long getOldestTimestamp() {
+        load();
+        final Long timestamp = mTimestamps.peek();
+        return timestamp != null ? timestamp : SystemClock.elapsedRealtime();
+    }
+
+    /**
+     * @param lines the serialized events to append
+     */
+    void append(@NonNull List<String> lines) {
+        load();
+        if (lines.isEmpty()) {
+            return;
+        }
+
+        final Long now = SystemClock.elapsedRealtime();
+        for (String line : lines) {
+            mLines.add(line);
+            mTimestamps.add(now);
+        }
+
+        if (mLines.size() > MAX_EVENTS) {
+            while (mLines.size() > MAX_EVENTS) {
+                poll();
+                mDroppedPeeked++;
+            }
+            rewrite();
+            return;
+        }
+
+        Writer writer = null;
+        try {
+            writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(mFile, true), UTF_8));
+            for (String line : lines) {
+                writer.write(line);
+                writer.write('\n');
+            }
+        } catch (IOException ignored) {
+            // the events are still pending in memory
+        } finally {
+            AbstractIOUtils.close(writer);
+        }
+    }
+
+    /**
+     * Peek the events to upload, to be passed to {@link #remove(int)} once uploaded
+     *
+     * @param max the maximum number of events
+     * @return the oldest pending events, without removing them
+     */
+    @NonNull
+    List<String> peek(int max) {
+        load();
+        mDroppedPeeked = 0;
+        final List<String> lines = new ArrayList<>(Math.min(max, mLines.size()));
+        final Iterator<String> iterator = mLines.iterator();
+        while (iterator.hasNext() && lines.size() < max) {
+            lines.add(iterator.next());
+        }
+        return lines;
+    }
+
+    /**
+     * Remove the events returned by the last {@link #peek(int)}, usually once they have been uploaded,
+     * except for those already dropped on overflow in the meantime
+     *
+     * @param count the number of peeked events
+     */
+    void remove(int count) {
+        load();
+        final int remaining = count - Math.min(count, mDroppedPeeked);
+        mDroppedPeeked = 0;
+        for (int i = 0; i < remaining && !mLines.isEmpty(); i++) {
+            poll();
+        }
+        rewrite();
+    }
+
+    private void poll() {
+        mLines.poll();
+        mTimestamps.poll();
+    }
+
+    private void load() {
+        if (mLoaded) {
+            return;
+        }
+        mLoaded = true;
+
+        if (!mFile.exists()) {
+            return;
+        }
+
+        BufferedReader reader = null;
+        try {
+            reader = new BufferedReader(new InputStreamReader(new FileInputStream(mFile), UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("{") && line.endsWith("}")) {
+                    mLines.add(line);
+                }
+            }
+        } catch (IOException ignored) {
+            // keep whatever has been read
+        } finally {
+            AbstractIOUtils.close(reader);
+        }
+
+        while (mLines.size() > MAX_EVENTS) {
+            mLines.poll();
+        }
+
+        // the queue time is not persisted, so age the events left over by the previous process from now
+        final Long now = SystemClock.elapsedRealtime();
+        for (int i = 0; i < mLines.size(); i++) {
+            mTimestamps.add(now);
+        }
+    }
+
+    private void rewrite() {
+        if (mLines.isEmpty()) {
+            //noinspection ResultOfMethodCallIgnored
+            mFile.delete();
+            return;
+        }
+
+        final File tmp = new File(mFile.getPath() + ".tmp");
+        Writer writer = null;
+        try {
+            writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tmp), UTF_8));
+            for (String line : mLines) {
+                writer.write(line);
+                writer.write('\n');
+            }
+            writer.flush();
+        } catch (IOException ignored) {
+            AbstractIOUtils.close(writer);
+            return;
+        }
+        AbstractIOUtils.close(writer);
+
+        //noinspection ResultOfMethodCallIgnored
+        tmp.renameTo(mFile);
+    }
+}
@@ -0,0 +1,82 @@
+package com.tenor.android.core.measurable;
+
+import android.graphics.Rect;
+import android.support.annotation.FloatRange;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import com.tenor.android.core.util.AbstractUIUtils;
+
+/**
+ * Allocation-free {@link MeasurableViewHolderHelper#calculateVisibleFraction(RecyclerView, View, float)}
+ * for the item views of a single {@link RecyclerView}
+ * <p>
+ * The {@link Rect}s and location array are reused across calls, and the global visible rect and the
+ * script direction of the {@link RecyclerView} are only queried once per frame, for the first item
+ * view measured after each pre-draw
+ */
+@MainThread
+class VisibleFractionCalculator implements ViewTreeObserver.OnPreDrawListener {
+
+    private final RecyclerView mRecyclerView;
+    private final Rect mItemRect = new Rect();
+    private final Rect mRecyclerViewRect = new Rect();
+    private final int[] mLocation = new int[2];
+    private boolean mRtl;
+    private boolean mStale = true;
+
+    VisibleFractionCalculator(@NonNull RecyclerView recyclerView) {
+        mRecyclerView = recyclerView;
+    }
+
+    /**
+     * Start invalidating the cached state on every frame, call it on the {@link RecyclerView}
+     * attached to window
+     */
+    void attach() {
+        mStale = true;
+        mRecyclerView.getViewTreeObserver().addOnPreDrawListener(this);
+    }
+
+    /**
+     * Call it on the {@link RecyclerView} detached from window
+     */
+    void detach() {
+        mRecyclerView.getViewTreeObserver().removeOnPreDrawListener(this);
+        mStale = true;
+    }
+
+    @Override
+    public boolean onPreDraw() {
+        mStale = true;
+        return true;
+    }
+
+    /**
+     * @param itemView  an item view of the {@link RecyclerView}
+     * @param threshold the percentage of a view's area to be shown in order to consider it as being viewed
+     * @return the visible fraction of the given {@link View}
+     */
+    @FloatRange(from = 0.01f, to = 1f)
+    float calculate(@NonNull View itemView, float threshold) {
+        // see MeasurableViewHolderHelper for why the location in window is used
+        if (!itemView.getGlobalVisibleRect(mItemRect) || mItemRect.isEmpty()) {
+            return 0.01f;
+        }
+
+        if (mStale) {
+            mStale = false;
+            mRecyclerView.getGlobalVisibleRect(mRecyclerViewRect);
+            mRtl = AbstractUIUtils.isRightToLeft(mRecyclerView.getContext());
+        }
+
+        itemView.getLocationInWindow(mLocation);
+        return MeasurableViewHolderHelper.calculateVisibleFraction(mRecyclerViewRect.left,
+                mRecyclerViewRect.top, mRecyclerViewRect.right, mRecyclerViewRect.bottom,
+                mLocation[0], mLocation[1], mItemRect.width(), mItemRect.height(),
+                itemView.getMeasuredWidth(), itemView.getMeasuredHeight(), threshold, mRtl);
+    }
+}
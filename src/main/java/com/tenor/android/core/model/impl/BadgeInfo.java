@@ -16,8 +16,8 @@ public class BadgeInfo implements Serializable {
     private static final long serialVersionUID = 2519123239149906317L;
 
     @SerializedName("view_acceptance_fraction")
-    private float threshold;
-    private List<ItemBadge> badges;
+    float threshold;
+    List<ItemBadge> badges;
 
     @FloatRange(from = 0.01f, to = 1f)
     public float getThreshold() {
@@ -13,13 +13,13 @@ import java.io.Serializable;
 public class EmojiTag implements Serializable {
     private static final long serialVersionUID = -2207206185861282031L;
     @SerializedName("character")
-    private String unicodeChars;
+    String unicodeChars;
     @SerializedName("name")
-    private String searchName;
+    String searchName;
     @SerializedName("path")
-    private String imgUrl;
+    String imgUrl;
     @SerializedName("searchterm")
-    private String searchTerm;
+    String searchTerm;
 
     /**
      * @return String of characters that make up the emoji in unicode form
@@ -12,13 +12,13 @@ public class FeaturedInfo implements Serializable {
     private static final long serialVersionUID = -1486902705491791354L;
 
     @SerializedName("feature_text")
-    private String mFeatureText;
+    String mFeatureText;
 
     @SerializedName("button_link")
-    private String mButtonLink;
+    String mButtonLink;
 
     @SerializedName("button_text")
-    private String mButtonText;
+    String mButtonText;
 
     @NonNull
     public String getFeatureText() {
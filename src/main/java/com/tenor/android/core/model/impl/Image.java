@@ -13,10 +13,10 @@ import java.io.Serializable;
  */
 public class Image implements Serializable {
     private static final long serialVersionUID = -8616498739266612929L;
-    private String url;
+    String url;
 
     @SerializedName("dims")
-    private int[] dimensions;
+    int[] dimensions;
 
     /**
      * @return url of the raw asset
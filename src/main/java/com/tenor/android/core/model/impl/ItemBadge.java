@@ -9,8 +9,8 @@ public class ItemBadge extends Image {
 
     private static final long serialVersionUID = 5769727680233855104L;
 
-    private int position;
-    private String provider;
+    int position;
+    String provider;
 
     @ItemBadgePosition.Value
     public int getPosition() {
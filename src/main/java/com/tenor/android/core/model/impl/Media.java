@@ -9,8 +9,15 @@ import com.tenor.android.core.constant.StringConstant;
  */
 public class Media extends Image {
     private static final long serialVersionUID = -8616498739266612929L;
-    private String preview;
-    private double duration;
+
+    /**
+     * Shared empty {@link Media}, returned in place of a missing format instead of a new instance
+     */
+    static final Media EMPTY = new Media();
+
+    String preview;
+    double duration;
+    int size;
 
     /**
      * @return url of a static image preview
@@ -26,4 +33,11 @@ public class Media extends Image {
     public double getDuration() {
         return duration;
     }
+
+    /**
+     * @return size of the asset in bytes, or 0 if unknown
+     */
+    public int getSize() {
+        return size;
+    }
 }
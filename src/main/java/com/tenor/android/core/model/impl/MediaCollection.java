@@ -13,22 +13,24 @@ import java.io.Serializable;
 public class MediaCollection implements Serializable {
     private static final long serialVersionUID = -8824214919408809561L;
 
-    private Media gif;
-    private Media tinygif;
-    private Media mediumgif;
-    private Media nanogif;
+    Media gif;
+    Media tinygif;
+    Media mediumgif;
+    Media nanogif;
 
-    private Media mp4;
-    private Media loopedmp4;
-    private Media tinymp4;
-    private Media nanomp4;
+    Media mp4;
+    Media loopedmp4;
+    Media tinymp4;
+    Media nanomp4;
 
-    private Media webm;
-    private Media tinywebm;
-    private Media nanowebm;
+    Media webm;
+    Media tinywebm;
+    Media nanowebm;
 
     /**
      * @param type one of {@link MediaCollectionFormat}
+     * @return the {@link Media} of the given format, or a shared empty {@link Media} if the format
+     * is missing or has not been decoded
      */
     @NonNull
     public Media get(@MediaCollectionFormat.Value String type) {
@@ -56,12 +58,12 @@ public class MediaCollection implements Serializable {
             case MediaCollectionFormat.WEBM_NANO:
                 return getOrEmptyMedia(nanowebm);
             default:
-                return new Media();
+                return Media.EMPTY;
         }
     }
 
     @NonNull
     private static Media getOrEmptyMedia(@Nullable Media media) {
-        return media != null ? media : new Media();
+        return media != null ? media : Media.EMPTY;
     }
 }
@@ -0,0 +1,600 @@
+package com.tenor.android.core.model.impl;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.tenor.android.core.constant.MediaCollectionFormat;
+import com.tenor.android.core.util.AbstractJsonUtils;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A {@link TypeAdapterFactory} of hand-written {@link TypeAdapter}s for the models of this package,
+ * which read and write the same JSON as the reflective Gson adapters, without the reflection
+ * <p>
+ * Only the exact model classes are handled, a subclass falls back to the reflective adapter
+ */
+public class ModelTypeAdapterFactory implements TypeAdapterFactory {
+
+    /**
+     * The JSON names of the {@link Media} formats to decode, {@code null} for all of them
+     */
+    @Nullable
+    private final Set<String> mMediaNames;
+
+    public ModelTypeAdapterFactory() {
+        this(null);
+    }
+
+    /**
+     * @param mediaFormats the {@link MediaCollectionFormat}s to decode, the other formats are skipped
+     *                     without being parsed, and read back as an empty {@link Media};
+     *                     {@code null} to decode all of them
+     */
+    public ModelTypeAdapterFactory(@Nullable Collection<String> mediaFormats) {
+        if (mediaFormats == null) {
+            mMediaNames = null;
+            return;
+        }
+
+        mMediaNames = new HashSet<>(mediaFormats.size());
+        for (String format : mediaFormats) {
+            final String name = getMediaName(format);
+            if (name != null) {
+                mMediaNames.add(name);
+            }
+        }
+    }
+
+    @Nullable
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        final Class<? super T> raw = type.getRawType();
+
+        final TypeAdapter<?> adapter;
+        if (raw == Result.class) {
+            adapter = new ResultTypeAdapter(gson);
+        } else if (raw == MediaCollection.class) {
+            adapter = new MediaCollectionTypeAdapter(gson, mMediaNames);
+        } else if (raw == Media.class) {
+            adapter = new MediaTypeAdapter();
+        } else if (raw == Image.class) {
+            adapter = new ImageTypeAdapter();
+        } else if (raw == ItemBadge.class) {
+            adapter = new ItemBadgeTypeAdapter();
+        } else if (raw == BadgeInfo.class) {
+            adapter = new BadgeInfoTypeAdapter(gson);
+        } else if (raw == FeaturedInfo.class) {
+            adapter = new FeaturedInfoTypeAdapter();
+        } else if (raw == Tag.class) {
+            adapter = new TagTypeAdapter();
+        } else if (raw == EmojiTag.class) {
+            adapter = new EmojiTagTypeAdapter();
+        } else if (raw == Suggestions.class) {
+            adapter = new SuggestionsTypeAdapter();
+        } else {
+            return null;
+        }
+        return (TypeAdapter<T>) adapter.nullSafe();
+    }
+
+    /**
+     * @return the JSON name of the given {@link MediaCollectionFormat}, or {@code null} if it is unknown
+     */
+    @Nullable
+    private static String getMediaName(@Nullable String format) {
+        if (format == null) {
+            return null;
+        }
+
+        switch (format) {
+            case MediaCollectionFormat.GIF:
+                return "gif";
+            case MediaCollectionFormat.GIF_TINY:
+                return "tinygif";
+            case MediaCollectionFormat.GIF_MEDIUM:
+                return "mediumgif";
+            case MediaCollectionFormat.GIF_NANO:
+                return "nanogif";
+            case MediaCollectionFormat.MP4:
+                return "mp4";
+            case MediaCollectionFormat.MP4_TINY:
+                return "tinymp4";
+            case MediaCollectionFormat.MP4_NANO:
+                return "nanomp4";
+            case MediaCollectionFormat.MP4_LOOPED:
+                return "loopedmp4";
+            case MediaCollectionFormat.WEBM:
+                return "webm";
+            case MediaCollectionFormat.WEBM_TINY:
+                return "tinywebm";
+            case MediaCollectionFormat.WEBM_NANO:
+                return "nanowebm";
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Base {@link TypeAdapter} of a JSON object, which skips the unknown fields
+     */
+    private static abstract class ObjectTypeAdapter<T> extends TypeAdapter<T> {
+
+        @Override
+        public T read(JsonReader in) throws IOException {
+            final T value = newInstance();
+            in.beginObject();
+            while (in.hasNext()) {
+                if (!readField(value, in.nextName(), in)) {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+
+        @Override
+        public void write(JsonWriter out, T value) throws IOException {
+            out.beginObject();
+            writeFields(out, value);
+            out.endObject();
+        }
+
+        @NonNull
+        abstract T newInstance();
+
+        /**
+         * @return false if the field is unknown and has not been consumed
+         */
+        abstract boolean readField(@NonNull T value, @NonNull String name, @NonNull JsonReader in) throws IOException;
+
+        abstract void writeFields(@NonNull JsonWriter out, @NonNull T value) throws IOException;
+    }
+
+    private static abstract class AbstractImageTypeAdapter<T extends Image> extends ObjectTypeAdapter<T> {
+
+        @Override
+        boolean readField(@NonNull T value, @NonNull String name, @NonNull JsonReader in) throws IOException {
+            switch (name) {
+                case "url":
+                    value.url = AbstractJsonUtils.nextString(in);
+                    return true;
+                case "dims":
+                    value.dimensions = AbstractJsonUtils.nextIntArray(in);
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        @Override
+        void writeFields(@NonNull JsonWriter out, @NonNull T value) throws IOException {
+            AbstractJsonUtils.write(out, "url", value.url);
+            AbstractJsonUtils.write(out, "dims", value.dimensions);
+        }
+    }
+
+    private static class ImageTypeAdapter extends AbstractImageTypeAdapter<Image> {
+
+        @NonNull
+        @Override
+        Image newInstance() {
+            return new Image();
+        }
+    }
+
+    private static class MediaTypeAdapter extends AbstractImageTypeAdapter<Media> {
+
+        @NonNull
+        @Override
+        Media newInstance() {
+            return new Media();
+        }
+
+        @Override
+        boolean readField(@NonNull Media value, @NonNull String name, @NonNull JsonReader in) throws IOException {
+            switch (name) {
+                case "preview":
+                    value.preview = AbstractJsonUtils.nextString(in);
+                    return true;
+                case "duration":
+                    value.duration = AbstractJsonUtils.nextDouble(in, 0);
+                    return true;
+                case "size":
+                    value.size = AbstractJsonUtils.nextInt(in, 0);
+                    return true;
+                default:
+                    return super.readField(value, name, in);
+            }
+        }
+
+        @Override
+        void writeFields(@NonNull JsonWriter out, @NonNull Media value) throws IOException {
+            super.writeFields(out, value);
+            AbstractJsonUtils.write(out, "preview", value.preview);
+            out.name("duration").value(value.duration);
+            out.name("size").value(value.size);
+        }
+    }
+
+    private static class ItemBadgeTypeAdapter extends AbstractImageTypeAdapter<ItemBadge> {
+
+        @NonNull
+        @Override
+        ItemBadge newInstance() {
+            return new ItemBadge();
+        }
+
+        @Override
+        boolean readField(@NonNull ItemBadge value, @NonNull String name, @NonNull JsonReader in) throws IOException {
+            switch (name) {
+                case "position":
+                    value.position = AbstractJsonUtils.nextInt(in, 0);
+                    return true;
+                case "provider":
+                    value.provider = AbstractJsonUtils.nextString(in);
+                    return true;
+                default:
+                    return super.readField(value, name, in);
+            }
+        }
+
+        @Override
+        void writeFields(@NonNull JsonWriter out, @NonNull ItemBadge value) throws IOException {
+            super.writeFields(out, value);
+            out.name("position").value(value.position);
+            AbstractJsonUtils.write(out, "provider", value.provider);
+        }
+    }
+
+    private static class MediaCollectionTypeAdapter extends ObjectTypeAdapter<MediaCollection> {
+
+        private final TypeAdapter<Media> mMediaAdapter;
+        @Nullable
+        private final Set<String> mMediaNames;
+
+        MediaCollectionTypeAdapter(@NonNull Gson gson, @Nullable Set<String> mediaNames) {
+            mMediaAdapter = gson.getAdapter(Media.class);
+            mMediaNames = mediaNames;
+        }
+
+        @NonNull
+        @Override
+        MediaCollection newInstance() {
+            return new MediaCollection();
+        }
+
+        @Override
+        boolean readField(@NonNull MediaCollection value, @NonNull String name, @NonNull JsonReader in) throws IOException {
+            if (mMediaNames != null && !mMediaNames.contains(name)) {
+                return false;
+            }
+
+            switch (name) {
+                case "gif":
+                    value.gif = mMediaAdapter.read(in);
+                    return true;
+                case "tinygif":
+                    value.tinygif = mMediaAdapter.read(in);
+                    return true;
+                case "mediumgif":
+                    value.mediumgif = mMediaAdapter.read(in);
+                    return true;
+                case "nanogif":
+                    value.nanogif = mMediaAdapter.read(in);
+                    return true;
+                case "mp4":
+                    value.mp4 = mMediaAdapter.read(in);
+                    return true;
+                case "loopedmp4":
+                    value.loopedmp4 = mMediaAdapter.read(in);
+                    return true;
+                case "tinymp4":
+                    value.tinymp4 = mMediaAdapter.read(in);
+                    return true;
+                case "nanomp4":
+                    value.nanomp4 = mMediaAdapter.read(in);
+                    return true;
+                case "webm":
+                    value.webm = mMediaAdapter.read(in);
+                    return true;
+                case "tinywebm":
+                    value.tinywebm = mMediaAdapter.read(in);
+                    return true;
+                case "nanowebm":
+                    value.nanowebm = mMediaAdapter.read(in);
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        @Override
+        void writeFields(@NonNull JsonWriter out, @NonNull MediaCollection value) throws IOException {
+            AbstractJsonUtils.write(out, "gif", value.gif, mMediaAdapter);
+            AbstractJsonUtils.write(out, "tinygif", value.tinygif, mMediaAdapter);
+            AbstractJsonUtils.write(out, "mediumgif", value.mediumgif, mMediaAdapter);
+            AbstractJsonUtils.write(out, "nanogif", value.nanogif, mMediaAdapter);
+            AbstractJsonUtils.write(out, "mp4", value.mp4, mMediaAdapter);
+            AbstractJsonUtils.write(out, "loopedmp4", value.loopedmp4, mMediaAdapter);
+            AbstractJsonUtils.write(out, "tinymp4", value.tinymp4, mMediaAdapter);
+            AbstractJsonUtils.write(out, "nanomp4", value.nanomp4, mMediaAdapter);
+            AbstractJsonUtils.write(out, "webm", value.webm, mMediaAdapter);
+            AbstractJsonUtils.write(out, "tinywebm", value.tinywebm, mMediaAdapter);
+            AbstractJsonUtils.write(out, "nanowebm", value.nanowebm, mMediaAdapter);
+        }
+    }
+
+    private static class ResultTypeAdapter extends ObjectTypeAdapter<Result> {
+
+        private final TypeAdapter<MediaCollection> mMediaCollectionAdapter;
+        private final TypeAdapter<Media> mMediaAdapter;
+        private final TypeAdapter<FeaturedInfo> mFeaturedInfoAdapter;
+        private final TypeAdapter<BadgeInfo> mBadgeInfoAdapter;
+
+        ResultTypeAdapter(@NonNull Gson gson) {
+            mMediaCollectionAdapter = gson.getAdapter(MediaCollection.class);
+            mMediaAdapter = gson.getAdapter(Media.class);
+            mFeaturedInfoAdapter = gson.getAdapter(FeaturedInfo.class);
+            mBadgeInfoAdapter = gson.getAdapter(BadgeInfo.class);
+        }
+
+        @NonNull
+        @Override
+        Result newInstance() {
+            return new Result();
+        }
+
+        @Override
+        boolean readField(@NonNull Result value, @NonNull String name, @NonNull JsonReader in) throws IOException {
+            switch (name) {
+                case "url":
+                    value.url = AbstractJsonUtils.nextString(in);
+                    return true;
+                case "media":
+                    value.medias = AbstractJsonUtils.nextList(in, mMediaCollectionAdapter);
+                    return true;
+                case "created":
+                    value.created = AbstractJsonUtils.nextDouble(in, 0);
+                    return true;
+                case "shares":
+                    value.shares = AbstractJsonUtils.nextInt(in, 0);
+                    return true;
+                case "itemurl":
+                    value.itemurl = AbstractJsonUtils.nextString(in);
+                    return true;
+                case "composite":
+                    value.composite = mMediaAdapter.read(in);
+                    return true;
+                case "hasaudio":
+                    value.hasAudio = AbstractJsonUtils.nextBoolean(in, false);
+                    return true;
+                case "title":
+                    value.title = AbstractJsonUtils.nextString(in);
+                    return true;
+                case "id":
+                    value.id = AbstractJsonUtils.nextString(in);
+                    return true;
+                case "tags":
+                    value.tags = AbstractJsonUtils.nextStringList(in);
+                    return true;
+                case "bg_color":
+                    value.placeholderColor = AbstractJsonUtils.nextString(in);
+                    return true;
+                case "aspect_ratio":
+                    value.aspectRatio = AbstractJsonUtils.nextString(in);
+                    return true;
+                case "feature_info":
+                    value.featuredInfo = mFeaturedInfoAdapter.read(in);
+                    return true;
+                case "badge_info":
+                    value.badgeInfo = mBadgeInfoAdapter.read(in);
+                    return true;
+                case "source_id":
+                    value.sourceId = AbstractJsonUtils.nextString(in);
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        @Override
+        void writeFields(@NonNull JsonWriter out, @NonNull Result value) throws IOException {
+            AbstractJsonUtils.write(out, "url", value.url);
+            AbstractJsonUtils.writeList(out, "media", value.medias, mMediaCollectionAdapter);
+            out.name("created").value(value.created);
+            out.name("shares").value(value.shares);
+            AbstractJsonUtils.write(out, "itemurl", value.itemurl);
+            AbstractJsonUtils.write(out, "composite", value.composite, mMediaAdapter);
+            out.name("hasaudio").value(value.hasAudio);
+            AbstractJsonUtils.write(out, "title", value.title);
+            AbstractJsonUtils.write(out, "id", value.id);
+            AbstractJsonUtils.writeStringList(out, "tags", value.tags);
+            AbstractJsonUtils.write(out, "bg_color", value.placeholderColor);
+            AbstractJsonUtils.write(out, "aspect_ratio", value.aspectRatio);
+            AbstractJsonUtils.write(out, "feature_info", value.featuredInfo, mFeaturedInfoAdapter);
+            AbstractJsonUtils.write(out, "badge_info", value.badgeInfo, mBadgeInfoAdapter);
+            AbstractJsonUtils.write(out, "source_id", value.sourceId);
+        }
+    }
+
+    private static class BadgeInfoTypeAdapter extends ObjectTypeAdapter<BadgeInfo> {
+
+        private final TypeAdapter<ItemBadge> mItemBadgeAdapter;
+
+        BadgeInfoTypeAdapter(@NonNull Gson gson) {
+            mItemBadgeAdapter = gson.getAdapter(ItemBadge.class);
+        }
+
+        @NonNull
+        @Override
+        BadgeInfo newInstance() {
+            return new BadgeInfo();
+        }
+
+        @Override
+        boolean readField(@NonNull BadgeInfo value, @NonNull String name, @NonNull JsonReader in) throws IOException {
+            switch (name) {
+                case "view_acceptance_fraction":
+                    value.threshold = (float) AbstractJsonUtils.nextDouble(in, 0);
+                    return true;
+                case "badges":
+                    value.badges = AbstractJsonUtils.nextList(in, mItemBadgeAdapter);
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        @Override
+        void writeFields(@NonNull JsonWriter out, @NonNull BadgeInfo value) throws IOException {
+            out.name("view_acceptance_fraction").value(value.threshold);
+            AbstractJsonUtils.writeList(out, "badges", value.badges, mItemBadgeAdapter);
+        }
+    }
+
+    private static class FeaturedInfoTypeAdapter extends ObjectTypeAdapter<FeaturedInfo> {
+
+        @NonNull
+        @Override
+        FeaturedInfo newInstance() {
+            return new FeaturedInfo();
+        }
+
+        @Override
+        boolean readField(@NonNull FeaturedInfo value, @NonNull String name, @NonNull JsonReader in) throws IOException {
+            switch (name) {
+                case "feature_text":
+                    value.mFeatureText = AbstractJsonUtils.nextString(in);
+                    return true;
+                case "button_link":
+                    value.mButtonLink = AbstractJsonUtils.nextString(in);
+                    return true;
+                case "button_text":
+                    value.mButtonText = AbstractJsonUtils.nextString(in);
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        @Override
+        void writeFields(@NonNull JsonWriter out, @NonNull FeaturedInfo value) throws IOException {
+            AbstractJsonUtils.write(out, "feature_text", value.mFeatureText);
+            AbstractJsonUtils.write(out, "button_link", value.mButtonLink);
+            AbstractJsonUtils.write(out, "button_text", value.mButtonText);
+        }
+    }
+
+    private static class TagTypeAdapter extends ObjectTypeAdapter<Tag> {
+
+        @NonNull
+        @Override
+        Tag newInstance() {
+            return new Tag();
+        }
+
+        @Override
+        boolean readField(@NonNull Tag value, @NonNull String name, @NonNull JsonReader in) throws IOException {
+            switch (name) {
+                case "image":
+                    value.image = AbstractJsonUtils.nextString(in);
+                    return true;
+                case "name":
+                    value.name = AbstractJsonUtils.nextString(in);
+                    return true;
+                case "path":
+                case "url":
+                    value.path = AbstractJsonUtils.nextString(in);
+                    return true;
+                case "searchterm":
+                    value.searchTerm = AbstractJsonUtils.nextString(in);
+                    return true;
+                case "dims":
+                    value.dimensions = AbstractJsonUtils.nextIntArray(in);
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        @Override
+        void writeFields(@NonNull JsonWriter out, @NonNull Tag value) throws IOException {
+            AbstractJsonUtils.write(out, "image", value.image);
+            AbstractJsonUtils.write(out, "name", value.name);
+            AbstractJsonUtils.write(out, "path", value.path);
+            AbstractJsonUtils.write(out, "searchterm", value.searchTerm);
+            AbstractJsonUtils.write(out, "dims", value.dimensions);
+        }
+    }
+
+    private static class EmojiTagTypeAdapter extends ObjectTypeAdapter<EmojiTag> {
+
+        @NonNull
+        @Override
+        EmojiTag newInstance() {
+            return new EmojiTag();
+        }
+
+        @Override
+        boolean readField(@NonNull EmojiTag value, @NonNull String name, @NonNull JsonReader in) throws IOException {
+            switch (name) {
+                case "character":
+                    value.unicodeChars = AbstractJsonUtils.nextString(in);
+                    return true;
+                case "name":
+                    value.searchName = AbstractJsonUtils.nextString(in);
+                    return true;
+                case "path":
+                    value.imgUrl = AbstractJsonUtils.nextString(in);
+                    return true;
+                case "searchterm":
+                    value.searchTerm = AbstractJsonUtils.nextString(in);
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        @Override
+        void writeFields(@NonNull JsonWriter out, @NonNull EmojiTag value) throws IOException {
+            AbstractJsonUtils.write(out, "character", value.unicodeChars);
+            AbstractJsonUtils.write(out, "name", value.searchName);
+            AbstractJsonUtils.write(out, "path", value.imgUrl);
+            AbstractJsonUtils.write(out, "searchterm", value.searchTerm);
+        }
+    }
+
+    private static class SuggestionsTypeAdapter extends ObjectTypeAdapter<Suggestions> {
+
+        @NonNull
+        @Override
+        Suggestions newInstance() {
+            return new Suggestions();
+        }
+
+        @Override
+        boolean readField(@NonNull Suggestions value, @NonNull String name, @NonNull JsonReader in) throws IOException {
+            if (!"results".equals(name)) {
+                return false;
+            }
+            value.suggestions = AbstractJsonUtils.nextStringList(in);
+            return true;
+        }
+
+        @Override
+        void writeFields(@NonNull JsonWriter out, @NonNull Suggestions value) throws IOException {
+            AbstractJsonUtils.writeStringList(out, "results", value.suggestions);
+        }
+    }
+}
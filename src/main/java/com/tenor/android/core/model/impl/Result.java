@@ -21,37 +21,37 @@ import java.util.List;
 public class Result implements IGif {
     private static final long serialVersionUID = -4037633614634142811L;
 
-    private String url;
+    String url;
 
     @SerializedName("media")
-    private List<MediaCollection> medias;
+    List<MediaCollection> medias;
 
-    private double created;
-    private int shares;
-    private String itemurl;
-    private Media composite;
+    double created;
+    int shares;
+    String itemurl;
+    Media composite;
 
     @SerializedName("hasaudio")
-    private boolean hasAudio;
+    boolean hasAudio;
 
-    private String title;
-    private String id;
-    private List<String> tags;
+    String title;
+    String id;
+    List<String> tags;
 
     @SerializedName("bg_color")
-    private String placeholderColor;
+    String placeholderColor;
 
     @SerializedName("aspect_ratio")
-    private String aspectRatio;
+    String aspectRatio;
 
     @SerializedName("feature_info")
-    private FeaturedInfo featuredInfo;
+    FeaturedInfo featuredInfo;
 
     @SerializedName("badge_info")
-    private BadgeInfo badgeInfo;
+    BadgeInfo badgeInfo;
 
     @SerializedName("source_id")
-    private String sourceId;
+    String sourceId;
 
     /**
      * @return true if asset has sound
@@ -16,7 +16,7 @@ public class Suggestions implements Serializable {
     private static final long serialVersionUID = 5805025178874996139L;
 
     @SerializedName("results")
-    private List<String> suggestions;
+    List<String> suggestions;
 
     @NonNull
     public List<String> getSuggestions() {
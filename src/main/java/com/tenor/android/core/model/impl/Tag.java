@@ -11,16 +11,16 @@ import com.tenor.android.core.model.IGif;
  */
 public class Tag implements IGif {
     private static final long serialVersionUID = 2978652640985303628L;
-    private String image;
-    private String name;
+    String image;
+    String name;
 
     @SerializedName(value = "path", alternate = {"url"})
-    private String path;
+    String path;
     @SerializedName("searchterm")
     String searchTerm;
 
     @SerializedName("dims")
-    private int[] dimensions;
+    int[] dimensions;
 
     public int getWidth() {
         return dimensions != null && dimensions.length == 2 ? dimensions[0] : -1;
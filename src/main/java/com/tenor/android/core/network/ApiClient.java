@@ -4,26 +4,40 @@ import android.app.Application;
 import android.content.Context;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
-import android.support.v4.util.ArrayMap;
 import android.text.TextUtils;
 
-import com.tenor.android.core.constant.ScreenDensity;
+import com.tenor.android.core.constant.AspectRatioRange;
+import com.tenor.android.core.constant.MediaFilter;
 import com.tenor.android.core.constant.StringConstant;
 import com.tenor.android.core.constant.ViewAction;
 import com.tenor.android.core.measurable.MeasurableViewHolderEvent;
 import com.tenor.android.core.model.impl.Result;
+import com.tenor.android.core.response.StreamingWeakRefCallback;
 import com.tenor.android.core.response.WeakRefCallback;
 import com.tenor.android.core.response.impl.AnonIdResponse;
+import com.tenor.android.core.response.impl.EmojiResponse;
+import com.tenor.android.core.response.impl.GifsResponse;
+import com.tenor.android.core.response.impl.TagsResponse;
+import com.tenor.android.core.response.impl.TrendingGifResponse;
 import com.tenor.android.core.service.AaidService;
 import com.tenor.android.core.util.AbstractGsonUtils;
 import com.tenor.android.core.util.AbstractLocaleUtils;
 import com.tenor.android.core.util.AbstractSessionUtils;
 
+import java.io.File;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
+import okhttp3.OkHttpClient;
 import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
 
 /**
  * API Client to make network calls to retrieve contents
@@ -31,6 +45,14 @@ import retrofit2.Call;
 public class ApiClient {
 
     private static volatile IApiService<IApiClient> sApiService;
+    /**
+     * Maximum number of streamed calls executed at the same time, the others wait in line
+     */
+    private static final int STREAMING_THREADS = 4;
+    private static ExecutorService sStreamingExecutor;
+    private static final ServiceIdsCache sServiceIds = new ServiceIdsCache();
+    private static final String RESPONSE_STORE_DIR = "tenor_response_store";
+    private static ResponseStore sResponseStore;
 
     private static synchronized void init(@NonNull final Context context) {
         init(context, new ApiService.Builder<>(context, IApiClient.class));
@@ -59,6 +81,13 @@ public class ApiClient {
         }
     }
 
+    /**
+     * @return true if {@link #init(Context, ApiService.IBuilder)} has been called
+     */
+    public static boolean isInitialized() {
+        return sApiService != null;
+    }
+
     public static String getApiKey() {
         if (sApiService == null) {
             throw new IllegalStateException("Api service cannot be null");
@@ -66,6 +95,58 @@ public class ApiClient {
         return sApiService.getApiKey();
     }
 
+    /**
+     * @return the in-memory cache of parsed search and trending pages, or {@code null} if it has
+     * been disabled by {@link ApiService.Builder#memoryCache(int, int)}
+     */
+    @Nullable
+    public static IResponseMemoryCache getMemoryCache() {
+        if (sApiService == null) {
+            throw new IllegalStateException("Api service cannot be null");
+        }
+        return sApiService instanceof ApiService
+                ? ((ApiService<IApiClient>) sApiService).getMemoryCache() : null;
+    }
+
+    /**
+     * @return the estimator of the network bandwidth, or {@code null} if it has been disabled by
+     * {@link ApiService.Builder#measureBandwidth(boolean)}
+     */
+    @Nullable
+    public static IBandwidthEstimator getBandwidthEstimator() {
+        if (sApiService == null) {
+            throw new IllegalStateException("Api service cannot be null");
+        }
+        return sApiService instanceof ApiService
+                ? ((ApiService<IApiClient>) sApiService).getBandwidthEstimator() : null;
+    }
+
+    /**
+     * @return the request body compressor with its statistics, or {@code null} if it has not been
+     * enabled by {@link ApiService.Builder#compressRequests(boolean, int)}
+     */
+    @Nullable
+    public static IRequestCompressor getRequestCompressor() {
+        if (sApiService == null) {
+            throw new IllegalStateException("Api service cannot be null");
+        }
+        return sApiService instanceof ApiService
+                ? ((ApiService<IApiClient>) sApiService).getRequestCompressor() : null;
+    }
+
+    /**
+     * @return the {@link OkHttpClient} of the API calls, to share its connection pool with other network stacks,
+     * or {@code null} if the api service is not an {@link ApiService}
+     */
+    @Nullable
+    public static OkHttpClient getHttpClient() {
+        if (sApiService == null) {
+            throw new IllegalStateException("Api service cannot be null");
+        }
+        return sApiService instanceof ApiService
+                ? ((ApiService<IApiClient>) sApiService).getHttpClient() : null;
+    }
+
     /**
      * Retrieve instance of the {@link ApiClient}, and create instance if not already created
      *
@@ -96,30 +177,19 @@ public class ApiClient {
      * @return a {@link Map} with {@code key} (API Key), {@code anon_id},
      * {@code aaid} (Android Advertise Id) and {@code locale } for authentication and better
      * content delivery experience
+     * <p>
+     * The returned {@link Map} is a shared, immutable snapshot
      */
     public static Map<String, String> getServiceIds(@NonNull final Context context) {
-        final ArrayMap<String, String> map = new ArrayMap<>(4);
-
-        // API Key
-        map.put("key", sApiService.getApiKey());
-
-        /*
-         * The following fields work together to delivery a more accurate and better experience
-         *
-         * 1. `anon_id`, a non-id or its older version, keyboard is used to roughly identify a user;
-         * 2. `aaid`, Android Advertise Id, is also used in case "keyboardid" or "anon_id" mutates
-         * 3. `locale` is used to deliver curated language/regional specific contents to users
-         * 4. `screen_density` is used to optimize the content size to the device
-         */
-        final String id = AbstractSessionUtils.getAnonId(context);
-        map.put(id.length() <= 20 ? "keyboardid" : "anon_id", id);
-        if (TextUtils.isEmpty(AbstractSessionUtils.getAndroidAdvertiseId(context))) {
-            AaidService.requestAaid(context);
-        }
-        map.put("aaid", AbstractSessionUtils.getAndroidAdvertiseId(context));
-        map.put("locale", AbstractLocaleUtils.getCurrentLocaleName(context));
-        map.put("screen_density", ScreenDensity.get(context));
-        return map;
+        return sServiceIds.get(context, sApiService.getApiKey());
+    }
+
+    /**
+     * Rebuild the service ids on the next {@link #getServiceIds(Context)}, they are rebuilt
+     * automatically once the anon id, the AAID, the locale or the screen density changes
+     */
+    public static void invalidateServiceIds() {
+        sServiceIds.invalidate();
     }
 
     /**
@@ -224,9 +294,173 @@ public class ApiClient {
      */
     public static Call<Void> registerActions(@NonNull final Context context,
                                              @NonNull List<MeasurableViewHolderEvent> events) {
-        final String data = AbstractGsonUtils.getInstance().toJson(events);
+        return registerActions(context, events, new VoidCallBack());
+    }
+
+    /**
+     * @param context  the application context
+     * @param events   the {@link MeasurableViewHolderEvent}
+     * @param callback the {@link Callback} of the upload
+     * @return {@link Call}<{@link Void}>
+     */
+    public static Call<Void> registerActions(@NonNull final Context context,
+                                             @NonNull List<MeasurableViewHolderEvent> events,
+                                             @NonNull Callback<Void> callback) {
+        return registerActions(context, AbstractGsonUtils.getInstance().toJson(events), callback);
+    }
+
+    /**
+     * @param context  the application context
+     * @param data     a serialized list of {@link MeasurableViewHolderEvent}
+     * @param callback the {@link Callback} of the upload
+     * @return {@link Call}<{@link Void}>
+     */
+    public static Call<Void> registerActions(@NonNull final Context context,
+                                             @NonNull String data,
+                                             @NonNull Callback<Void> callback) {
         Call<Void> call = ApiClient.getInstance().registerActions(getServiceIds(context), data);
-        call.enqueue(new VoidCallBack());
+        call.enqueue(callback);
+        return call;
+    }
+
+    /**
+     * Look up any number of GIFs by id, such as to restore the recents or favorites
+     * <p>
+     * The ids are deduped, the recently fetched ones are served from memory, and the rest are
+     * fetched in parallel batches of {@link IApiClient#getGifs(Map, String, String, String)}
+     *
+     * @param context          the context
+     * @param ids              the ids of the desired GIFs
+     * @param mediaFilter      one of the options from {@link MediaFilter}
+     * @param aspectRatioRange one of the options from {@link AspectRatioRange}
+     * @param listener         the {@link IBulkGifsListener}, called on the main thread
+     * @return the {@link BulkGifsRequest}, which can be canceled
+     */
+    @NonNull
+    public static BulkGifsRequest getGifs(@NonNull Context context,
+                                          @NonNull Collection<String> ids,
+                                          @MediaFilter.Value String mediaFilter,
+                                          String aspectRatioRange,
+                                          @NonNull IBulkGifsListener listener) {
+        final BulkGifsRequest request = new BulkGifsRequest(getInstance(context), getServiceIds(context),
+                ids, mediaFilter, aspectRatioRange, listener);
+        request.start();
+        return request;
+    }
+
+    /**
+     * @return the {@link ResponseStore} of the last known trending GIFs, tags and emojis
+     */
+    @NonNull
+    public static synchronized ResponseStore getResponseStore(@NonNull Context context) {
+        if (sResponseStore == null) {
+            sResponseStore = new ResponseStore(new File(context.getApplicationContext().getFilesDir(), RESPONSE_STORE_DIR));
+        }
+        return sResponseStore;
+    }
+
+    /**
+     * Get the trending GIFs, served first from the last known ones of the current locale, if any
+     *
+     * @param context          the context
+     * @param limit            the number of GIFs
+     * @param mediaFilter      one of the options from {@link MediaFilter}
+     * @param aspectRatioRange one of the options from {@link AspectRatioRange}
+     * @param listener         the {@link IStoredResponseListener}
+     * @return {@link Call}<{@link TrendingGifResponse}>
+     */
+    @NonNull
+    public static Call<TrendingGifResponse> getTrending(@NonNull Context context,
+                                                        Integer limit,
+                                                        @MediaFilter.Value String mediaFilter,
+                                                        String aspectRatioRange,
+                                                        @NonNull IStoredResponseListener<TrendingGifResponse> listener) {
+        final String key = "trending/" + AbstractLocaleUtils.getCurrentLocaleName(context)
+                + '/' + limit + '/' + mediaFilter + '/' + aspectRatioRange;
+        final Call<TrendingGifResponse> call = getInstance(context)
+                .getTrending(getServiceIds(context), limit, StringConstant.EMPTY, mediaFilter, aspectRatioRange);
+        return getResponseStore(context).enqueue(key, TrendingGifResponse.class, call, listener);
+    }
+
+    /**
+     * Get the tags, served first from the last known ones of the current locale, if any
+     *
+     * @param context  the context
+     * @param type     the type of the tags
+     * @param listener the {@link IStoredResponseListener}
+     * @return {@link Call}<{@link TagsResponse}>
+     */
+    @NonNull
+    public static Call<TagsResponse> getTags(@NonNull Context context,
+                                             String type,
+                                             @NonNull IStoredResponseListener<TagsResponse> listener) {
+        final String key = "tags/" + AbstractLocaleUtils.getCurrentLocaleName(context) + '/' + type;
+        final Call<TagsResponse> call = getInstance(context)
+                .getTags(getServiceIds(context), type, AbstractLocaleUtils.getUtcOffset(context));
+        return getResponseStore(context).enqueue(key, TagsResponse.class, call, listener);
+    }
+
+    /**
+     * Get the emoji tags, served first from the last known ones of the current locale, if any
+     *
+     * @param context  the context
+     * @param listener the {@link IStoredResponseListener}
+     * @return {@link Call}<{@link EmojiResponse}>
+     */
+    @NonNull
+    public static Call<EmojiResponse> getEmojiTags(@NonNull Context context,
+                                                   @NonNull IStoredResponseListener<EmojiResponse> listener) {
+        final String key = "emoji/" + AbstractLocaleUtils.getCurrentLocaleName(context);
+        final Call<EmojiResponse> call = getInstance(context).getEmojiTags(getServiceIds(context));
+        return getResponseStore(context).enqueue(key, EmojiResponse.class, call, listener);
+    }
+
+    /**
+     * Enqueue a paged {@link Call}, such as {@link IApiClient#search} or {@link IApiClient#getTrending},
+     * and deliver each of its {@link Result}s to the given {@link StreamingWeakRefCallback} as soon as
+     * it has been parsed, rather than after the whole response has been downloaded
+     * <p>
+     * Streaming relies on the {@link ResultStreamTypeAdapterFactory} registered on
+     * {@link AbstractGsonUtils#getInstance()}; a custom {@link com.google.gson.Gson} set through
+     * {@link ApiService.IBuilder#gson} needs to register it as well
+     * <p>
+     * The call is executed on a bounded pool of {@link #STREAMING_THREADS} threads, and still goes
+     * through the memory cache and joins identical in-flight calls; a response it did not parse
+     * itself is delivered all at once on {@link StreamingWeakRefCallback#onResponse}
+     *
+     * @param call     the {@link Call}
+     * @param callback the {@link StreamingWeakRefCallback}
+     * @return the given {@link Call}, which can be canceled
+     */
+    public static <CTX, T extends GifsResponse> Call<T> enqueue(@NonNull final Call<T> call,
+                                                                @NonNull final StreamingWeakRefCallback<CTX, T> callback) {
+        getStreamingExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                callback.resetStream();
+                ResultStreamTypeAdapterFactory.bind(callback);
+                final Response<T> response;
+                try {
+                    response = call.execute();
+                } catch (Throwable throwable) {
+                    callback.onFailure(call, throwable);
+                    return;
+                } finally {
+                    ResultStreamTypeAdapterFactory.unbind();
+                }
+                callback.onResponse(call, response);
+            }
+        });
         return call;
     }
+
+    private static synchronized ExecutorService getStreamingExecutor() {
+        if (sStreamingExecutor == null) {
+            final ThreadPoolExecutor executor = new ThreadPoolExecutor(STREAMING_THREADS, STREAMING_THREADS,
+                    30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+            executor.allowCoreThreadTimeOut(true);
+            sStreamingExecutor = executor;
+        }
+        return sStreamingExecutor;
+    }
 }
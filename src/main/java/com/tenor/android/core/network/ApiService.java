@@ -4,10 +4,14 @@ import android.app.Application;
 import android.content.Context;
 import android.support.annotation.IntRange;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.text.TextUtils;
 
 import com.google.gson.Gson;
+import com.tenor.android.core.constant.MediaCollectionFormat;
 import com.tenor.android.core.constant.StringConstant;
+import com.tenor.android.core.model.impl.Media;
+import com.tenor.android.core.model.impl.MediaCollection;
 import com.tenor.android.core.network.constant.Protocol;
 import com.tenor.android.core.network.constant.Protocols;
 import com.tenor.android.core.util.AbstractGsonUtils;
@@ -16,10 +20,13 @@ import com.tenor.android.core.util.AbstractListUtils;
 import java.io.File;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.Interceptor;
 import okhttp3.OkHttpClient;
 import retrofit2.Retrofit;
@@ -33,8 +40,20 @@ public class ApiService<T> implements IApiService<T> {
     private final T mClient;
     private final String mApiKey;
     private final String mEndpoint;
+    @Nullable
+    private final IResponseMemoryCache mMemoryCache;
+    @Nullable
+    private final BandwidthEstimator mBandwidthEstimator;
+    @Nullable
+    private final RequestCompressor mRequestCompressor;
+    private OkHttpClient mHttpClient;
 
     protected ApiService(Builder<T> builder) {
+        mMemoryCache = builder.memoryCacheSize > 0
+                ? new ResponseMemoryCache(builder.memoryCacheSize, TimeUnit.SECONDS.toMillis(builder.memoryCacheTtl))
+                : null;
+        mBandwidthEstimator = builder.measureBandwidth ? new BandwidthEstimator() : null;
+        mRequestCompressor = builder.compressRequests ? new RequestCompressor(builder.compressionMinSize) : null;
         mClient = create(builder);
         mApiKey = builder.apiKey;
         mEndpoint = builder.endpoint;
@@ -52,24 +71,89 @@ public class ApiService<T> implements IApiService<T> {
             ctx = ctx.getApplicationContext();
         }
 
-        final File cacheDir = new File(ctx.getCacheDir().getAbsolutePath(), ctx.getPackageName());
-        final Cache cache = new Cache(cacheDir, 10 * 1024 * 1024);
+        /*
+         * A shared client keeps its own connection pool and dispatcher, so the app runs a single pool
+         */
+        final OkHttpClient.Builder http;
+        if (builder.httpClient != null) {
+            http = builder.httpClient.newBuilder();
+        } else {
+            final Dispatcher dispatcher = new Dispatcher();
+            dispatcher.setMaxRequests(builder.maxRequests);
+            dispatcher.setMaxRequestsPerHost(builder.maxRequestsPerHost);
+
+            http = new OkHttpClient.Builder()
+                    .dispatcher(dispatcher)
+                    .connectionPool(new ConnectionPool(builder.maxIdleConnections,
+                            builder.keepAliveDuration, TimeUnit.SECONDS));
+        }
+
+        if (builder.httpClient == null || builder.httpClient.cache() == null) {
+            final File cacheDir = new File(ctx.getCacheDir().getAbsolutePath(), ctx.getPackageName());
+            http.cache(new Cache(cacheDir, 10 * 1024 * 1024));
+        }
 
-        OkHttpClient.Builder http = new OkHttpClient.Builder()
-                .cache(cache)
-                .writeTimeout(builder.timeout, TimeUnit.SECONDS);
+        // a shared client keeps its own timeouts and protocols, unless they have been set explicitly
+        final boolean shared = builder.httpClient != null;
+        if (!shared || builder.connectTimeoutSet) {
+            http.connectTimeout(builder.connectTimeout, TimeUnit.SECONDS);
+        }
+        if (!shared || builder.readTimeoutSet) {
+            http.readTimeout(builder.readTimeout, TimeUnit.SECONDS);
+        }
+        if (!shared || builder.timeoutSet) {
+            http.writeTimeout(builder.timeout, TimeUnit.SECONDS);
+        }
+        if (!shared || builder.protocolsSet) {
+            http.protocols(builder.protocols);
+        }
 
         for (Interceptor interceptor : builder.interceptors) {
             http.addInterceptor(interceptor);
         }
 
-        Retrofit retrofit = new Retrofit.Builder()
+        // after the app's interceptors, so they still see the uncompressed body
+        if (mRequestCompressor != null) {
+            http.addInterceptor(mRequestCompressor);
+        }
+
+        if (mBandwidthEstimator != null) {
+            http.addNetworkInterceptor(mBandwidthEstimator);
+        }
+
+        mHttpClient = http.build();
+
+        Retrofit.Builder retrofit = new Retrofit.Builder()
                 .baseUrl(builder.endpoint)
-                .client(http.build())
-                .addConverterFactory(GsonConverterFactory.create(builder.gson))
-                .build();
+                .client(mHttpClient)
+                .addConverterFactory(GsonConverterFactory.create(createGson(builder)));
+
+        if (mMemoryCache != null) {
+            retrofit.addCallAdapterFactory(new MemoryCacheCallAdapterFactory(mMemoryCache));
+        }
 
-        return retrofit.create(builder.cls);
+        /*
+         * Call adapters are chained in the order they are added, so a cached page is served
+         * before an identical in-flight call is even looked up
+         */
+        if (builder.coalesceRequests) {
+            retrofit.addCallAdapterFactory(new SingleFlightCallAdapterFactory(new SingleFlightGroup()));
+        }
+
+        return retrofit.build().create(builder.cls);
+    }
+
+    /**
+     * The {@link Gson} set by the app wins over {@link Builder#mediaFormats(String...)}, since it
+     * cannot be extended with the format filter
+     */
+    @NonNull
+    private static Gson createGson(@NonNull Builder<?> builder) {
+        if (builder.gson != null) {
+            return builder.gson;
+        }
+        return builder.mediaFormats != null
+                ? AbstractGsonUtils.create(builder.mediaFormats) : AbstractGsonUtils.getInstance();
     }
 
     @NonNull
@@ -88,6 +172,49 @@ public class ApiService<T> implements IApiService<T> {
         return mApiKey;
     }
 
+    /**
+     * Not part of {@link IApiService}, so existing implementations of it keep compiling
+     *
+     * @return the in-memory cache of parsed search and trending pages,
+     * or {@code null} if it has been disabled by {@link Builder#memoryCache(int, int)}
+     */
+    @Nullable
+    public IResponseMemoryCache getMemoryCache() {
+        return mMemoryCache;
+    }
+
+    /**
+     * Not part of {@link IApiService}, so existing implementations of it keep compiling
+     *
+     * @return the estimator of the network bandwidth, or {@code null} if it has been disabled by
+     * {@link Builder#measureBandwidth(boolean)}
+     */
+    @Nullable
+    public IBandwidthEstimator getBandwidthEstimator() {
+        return mBandwidthEstimator;
+    }
+
+    /**
+     * Not part of {@link IApiService}, so existing implementations of it keep compiling
+     *
+     * @return the {@link IRequestCompressor} of the API calls, or null if not enabled by
+     * {@link Builder#compressRequests(boolean, int)}
+     */
+    @Nullable
+    public IRequestCompressor getRequestCompressor() {
+        return mRequestCompressor;
+    }
+
+    /**
+     * Not part of {@link IApiService}, so existing implementations of it keep compiling
+     *
+     * @return the {@link OkHttpClient} of the API calls, which can be shared by other network stacks
+     */
+    @NonNull
+    public synchronized OkHttpClient getHttpClient() {
+        return mHttpClient;
+    }
+
     public interface IBuilder<T> extends Serializable {
         IBuilder<T> apiKey(@NonNull String apiKey);
 
@@ -156,12 +283,43 @@ public class ApiService<T> implements IApiService<T> {
         private String endpoint = String.format(API_ENDPOINT_FORMATTER, protocol, serverName);
         @IntRange(from = 0, to = 30)
         private int timeout = 15;
+        @IntRange(from = 0, to = 30)
+        private int connectTimeout = 10;
+        @IntRange(from = 0, to = 30)
+        private int readTimeout = 15;
+        @IntRange(from = 1)
+        private int maxIdleConnections = 8;
+        @IntRange(from = 1)
+        private int keepAliveDuration = 300;
+        @IntRange(from = 1)
+        private int maxRequests = 64;
+        @IntRange(from = 1)
+        private int maxRequestsPerHost = 16;
+        @NonNull
+        private List<okhttp3.Protocol> protocols = Arrays.asList(okhttp3.Protocol.HTTP_2, okhttp3.Protocol.HTTP_1_1);
+        private boolean timeoutSet;
+        private boolean connectTimeoutSet;
+        private boolean readTimeoutSet;
+        private boolean protocolsSet;
+        @Nullable
+        private OkHttpClient httpClient;
         @NonNull
         private List<Interceptor> interceptors = new ArrayList<>();
         @NonNull
         private String apiKey = StringConstant.EMPTY;
-        @NonNull
-        private Gson gson = AbstractGsonUtils.getInstance();
+        @Nullable
+        private Gson gson;
+        @Nullable
+        private List<String> mediaFormats;
+        @IntRange(from = 0)
+        private int memoryCacheSize = 2 * 1024 * 1024;
+        @IntRange(from = 0)
+        private int memoryCacheTtl = 180;
+        private boolean coalesceRequests = true;
+        private boolean measureBandwidth = true;
+        private boolean compressRequests = false;
+        @IntRange(from = 0)
+        private int compressionMinSize = 1024;
 
         private final Context context;
         private final Class<T> cls;
@@ -243,12 +401,115 @@ public class ApiService<T> implements IApiService<T> {
 
         @Override
         public IBuilder<T> timeout(@IntRange(from = 0, to = 30) int timeout) {
-            if (timeout >= 0 && timeout <= 30 && this.timeout != timeout) {
+            if (timeout >= 0 && timeout <= 30) {
                 this.timeout = timeout;
+                this.timeoutSet = true;
+            }
+            return this;
+        }
+
+        /**
+         * Connect timeout, default is 10 seconds
+         * <p>
+         * Not part of {@link IBuilder}, so existing implementations of it keep compiling; call it
+         * on the {@link Builder} before any method returning {@link IBuilder}
+         *
+         * @param timeout between 0 to 30 seconds
+         */
+        public Builder<T> connectTimeout(@IntRange(from = 0, to = 30) int timeout) {
+            if (timeout >= 0 && timeout <= 30) {
+                this.connectTimeout = timeout;
+                this.connectTimeoutSet = true;
+            }
+            return this;
+        }
+
+        /**
+         * Read timeout, default is 15 seconds
+         * <p>
+         * Not part of {@link IBuilder}, so existing implementations of it keep compiling; call it
+         * on the {@link Builder} before any method returning {@link IBuilder}
+         *
+         * @param timeout between 0 to 30 seconds
+         */
+        public Builder<T> readTimeout(@IntRange(from = 0, to = 30) int timeout) {
+            if (timeout >= 0 && timeout <= 30) {
+                this.readTimeout = timeout;
+                this.readTimeoutSet = true;
             }
             return this;
         }
 
+        /**
+         * Size the connection pool, default is 8 idle connections kept alive for 5 minutes
+         * <p>
+         * Ignored if a shared client is set by {@link #httpClient(OkHttpClient)}
+         * <p>
+         * Not part of {@link IBuilder}, so existing implementations of it keep compiling; call it
+         * on the {@link Builder} before any method returning {@link IBuilder}
+         *
+         * @param maxIdleConnections the maximum number of idle connections
+         * @param keepAliveDuration  how long an idle connection is kept alive, in seconds
+         */
+        public Builder<T> connectionPool(@IntRange(from = 1) int maxIdleConnections,
+                                          @IntRange(from = 1) int keepAliveDuration) {
+            this.maxIdleConnections = Math.max(maxIdleConnections, 1);
+            this.keepAliveDuration = Math.max(keepAliveDuration, 1);
+            return this;
+        }
+
+        /**
+         * Limit the concurrent requests, default is 64 in total and 16 per host
+         * <p>
+         * Ignored if a shared client is set by {@link #httpClient(OkHttpClient)}
+         * <p>
+         * Not part of {@link IBuilder}, so existing implementations of it keep compiling; call it
+         * on the {@link Builder} before any method returning {@link IBuilder}
+         *
+         * @param maxRequests        the maximum number of concurrent requests
+         * @param maxRequestsPerHost the maximum number of concurrent requests to each host
+         */
+        public Builder<T> maxRequests(@IntRange(from = 1) int maxRequests,
+                                       @IntRange(from = 1) int maxRequestsPerHost) {
+            this.maxRequests = Math.max(maxRequests, 1);
+            this.maxRequestsPerHost = Math.max(maxRequestsPerHost, 1);
+            return this;
+        }
+
+        /**
+         * Set the protocols in order of preference, default is HTTP/2 then HTTP/1.1
+         * <p>
+         * Not part of {@link IBuilder}, so existing implementations of it keep compiling; call it
+         * on the {@link Builder} before any method returning {@link IBuilder}
+         *
+         * @param protocols the protocols, must contain {@link okhttp3.Protocol#HTTP_1_1}
+         */
+        public Builder<T> protocols(@NonNull List<okhttp3.Protocol> protocols) {
+            if (!protocols.contains(okhttp3.Protocol.HTTP_1_1)) {
+                throw new IllegalArgumentException("protocols must contain http/1.1: " + protocols);
+            }
+            this.protocols = new ArrayList<>(protocols);
+            this.protocolsSet = true;
+            return this;
+        }
+
+        /**
+         * Share the connection pool, dispatcher and cache of the app's {@link OkHttpClient}, instead
+         * of running a second set of them
+         * <p>
+         * The shared client also keeps its own timeouts and protocols, unless they are set explicitly
+         * on this builder
+         * <p>
+         * Not part of {@link IBuilder}, so existing implementations of it keep compiling; call it
+         * on the {@link Builder} before any method returning {@link IBuilder}
+         *
+         * @param client the {@link OkHttpClient} of the app
+         */
+        public Builder<T> httpClient(@NonNull OkHttpClient client) {
+            this.httpClient = client;
+            return this;
+        }
+
         /**
          * Set API endpoint directly; however, using {@link #protocol(String)} and
          * {@link #server(String)} are recommended over using this.
@@ -261,6 +522,82 @@ public class ApiService<T> implements IApiService<T> {
             return this;
         }
 
+        /**
+         * Configure the in-memory cache of parsed search and trending pages
+         * <p>
+         * Not part of {@link IBuilder}, so existing implementations of it keep compiling; call it
+         * on the {@link Builder} before any method returning {@link IBuilder}
+         *
+         * @param maxSize the maximum size of the cache in bytes, 0 to disable the cache
+         * @param ttl     how long a cached page stays valid, in seconds
+         */
+        public Builder<T> memoryCache(@IntRange(from = 0) int maxSize, @IntRange(from = 0) int ttl) {
+            this.memoryCacheSize = Math.max(maxSize, 0);
+            this.memoryCacheTtl = Math.max(ttl, 0);
+            return this;
+        }
+
+        /**
+         * Let identical concurrent requests to the read-only endpoints share one network call,
+         * default is true
+         * <p>
+         * Not part of {@link IBuilder}, so existing implementations of it keep compiling; call it
+         * on the {@link Builder} before any method returning {@link IBuilder}
+         *
+         * @param coalesce true to coalesce identical in-flight requests
+         */
+        public Builder<T> coalesceRequests(boolean coalesce) {
+            this.coalesceRequests = coalesce;
+            return this;
+        }
+
+        /**
+         * Measure the bandwidth and round trip time of every response to size the pages, default is true
+         * <p>
+         * Not part of {@link IBuilder}, so existing implementations of it keep compiling; call it
+         * on the {@link Builder} before any method returning {@link IBuilder}
+         *
+         * @param measure true to install a {@link BandwidthEstimator}
+         */
+        public Builder<T> measureBandwidth(boolean measure) {
+            this.measureBandwidth = measure;
+            return this;
+        }
+
+        /**
+         * Gzip the request bodies of at least the given size, such as batched analytics events,
+         * default is false
+         * <p>
+         * Not part of {@link IBuilder}, so existing implementations of it keep compiling; call it
+         * on the {@link Builder} before any method returning {@link IBuilder}
+         *
+         * @param compress true to install a {@link RequestCompressor}
+         * @param minSize  the minimum size of a request body to compress, in bytes
+         */
+        public Builder<T> compressRequests(boolean compress, @IntRange(from = 0) int minSize) {
+            this.compressRequests = compress;
+            this.compressionMinSize = Math.max(minSize, 0);
+            return this;
+        }
+
+        /**
+         * Only decode the given {@link MediaCollectionFormat}s of each {@link MediaCollection}, the
+         * other formats are skipped while parsing and read back as an empty {@link Media}
+         * <p>
+         * Ignored if a {@link Gson} is set by {@link #gson(Gson)}, in either order of the calls; register a
+         * {@link com.tenor.android.core.model.impl.ModelTypeAdapterFactory} with the formats on that
+         * {@link Gson} instead
+         * <p>
+         * Not part of {@link IBuilder}, so existing implementations of it keep compiling; call it
+         * on the {@link Builder} before any method returning {@link IBuilder}
+         *
+         * @param formats the {@link MediaCollectionFormat}s the app displays or shares
+         */
+        public Builder<T> mediaFormats(@NonNull @MediaCollectionFormat.Value String... formats) {
+            this.mediaFormats = Arrays.asList(formats);
+            return this;
+        }
+
         @Override
         public IApiService<T> build() {
             return new ApiService<>(this);
@@ -0,0 +1,216 @@
+package com.tenor.android.core.network;
+
+import android.support.annotation.NonNull;
+
+import com.tenor.android.core.util.AbstractNetworkUtils;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+
+/**
+ * An {@link IBandwidthEstimator} installed as a network {@link Interceptor}
+ * <p>
+ * The round trip time is sampled from the time to the response headers of every response, and
+ * smoothed as an exponentially weighted moving average
+ * <p>
+ * The bandwidth is sampled from every response body large enough to not be dominated by latency,
+ * as the wall time from the response headers to the end of the stream. Bytes already buffered by
+ * the kernel or Okio come back from a read almost instantly, so the time inside the reads alone
+ * overestimates a network slower than its consumer; instead, a body whose consumer paused in
+ * between reads, such as to parse or decode, is not used as a sample. The estimate is the median of
+ * the last {@link #WINDOW_SIZE} samples, and is only pushed into
+ * {@link AbstractNetworkUtils#updateBatchSize(float)} once {@link #MIN_SAMPLES} of them have been taken
+ */
+public class BandwidthEstimator implements IBandwidthEstimator, Interceptor {
+
+    /**
+     * Bodies smaller than this are mostly latency, and are not used as bandwidth samples
+     */
+    private static final long MIN_SAMPLE_BYTES = 8 * 1024;
+
+    /**
+     * Weight of a new sample in the moving average of the round trip time
+     */
+    private static final float ALPHA = 0.25f;
+
+    /**
+     * Number of recent bandwidth samples the estimate is the median of
+     */
+    private static final int WINDOW_SIZE = 5;
+
+    /**
+     * Number of bandwidth samples needed before the batch size is changed
+     */
+    private static final int MIN_SAMPLES = 3;
+
+    /**
+     * A body whose consumer paused longer than this in between two reads is not used as a sample
+     */
+    private static final long MAX_CONSUMER_PAUSE_NANOS = 20 * 1000000L;
+
+    /**
+     * A body whose consumer spent more than this fraction of the wall time in between reads is not
+     * used as a sample
+     */
+    private static final float MAX_CONSUMER_FRACTION = 0.2f;
+
+    private final float[] mSamples = new float[WINDOW_SIZE];
+    private final float[] mSorted = new float[WINDOW_SIZE];
+    private volatile float mBandwidth = -1f;
+    private volatile long mRtt = -1;
+    private int mSampleCount;
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        final Response response = chain.proceed(chain.request());
+        onRttSample(response.receivedResponseAtMillis() - response.sentRequestAtMillis());
+
+        final ResponseBody body = response.body();
+        if (body == null || body.contentLength() == 0) {
+            return response;
+        }
+        return response.newBuilder().body(new MeteredResponseBody(body)).build();
+    }
+
+    @Override
+    public float getBandwidth() {
+        return mBandwidth;
+    }
+
+    @Override
+    public long getRtt() {
+        return mRtt;
+    }
+
+    @Override
+    public synchronized int sampleCount() {
+        return mSampleCount;
+    }
+
+    private synchronized void onRttSample(long rtt) {
+        if (rtt < 0) {
+            return;
+        }
+        mRtt = mRtt < 0 ? rtt : (long) (ALPHA * rtt + (1 - ALPHA) * mRtt);
+    }
+
+    /**
+     * @param bytes   the number of bytes read
+     * @param elapsed the wall time from the response headers to the end of the stream in nanoseconds
+     */
+    private void onBandwidthSample(long bytes, long elapsed) {
+        if (bytes < MIN_SAMPLE_BYTES) {
+            return;
+        }
+
+        // KB/s
+        final float sample = bytes / 1024f / (Math.max(elapsed, 1000000L) / 1e9f);
+        final float bandwidth;
+        final int count;
+        synchronized (this) {
+            mSamples[mSampleCount % WINDOW_SIZE] = sample;
+            mSampleCount++;
+
+            final int size = Math.min(mSampleCount, WINDOW_SIZE);
+            System.arraycopy(mSamples, 0, mSorted, 0, size);
+            Arrays.sort(mSorted, 0, size);
+            bandwidth = size % 2 == 1 ? mSorted[size / 2] : (mSorted[size / 2 - 1] + mSorted[size / 2]) / 2f;
+            mBandwidth = bandwidth;
+            count = mSampleCount;
+        }
+
+        if (count >= MIN_SAMPLES) {
+            AbstractNetworkUtils.updateBatchSize(bandwidth);
+        }
+    }
+
+    /**
+     * A {@link ResponseBody} that counts the bytes read from the network and the wall time until
+     * the end of the stream, and reports a bandwidth sample once it has been fully read without
+     * long pauses of its consumer
+     */
+    private class MeteredResponseBody extends ResponseBody {
+
+        private final ResponseBody mDelegate;
+        private final long mStartNanos;
+        private BufferedSource mSource;
+        private long mBytes;
+        private long mLastReadEndNanos;
+        private long mConsumerNanos;
+        private boolean mPaused;
+        private boolean mReported;
+
+        MeteredResponseBody(@NonNull ResponseBody delegate) {
+            mDelegate = delegate;
+            // the response headers have just been received
+            mStartNanos = System.nanoTime();
+        }
+
+        @Override
+        public MediaType contentType() {
+            return mDelegate.contentType();
+        }
+
+        @Override
+        public long contentLength() {
+            return mDelegate.contentLength();
+        }
+
+        @Override
+        public BufferedSource source() {
+            if (mSource == null) {
+                mSource = Okio.buffer(new ForwardingSource(mDelegate.source()) {
+                    @Override
+                    public long read(Buffer sink, long byteCount) throws IOException {
+                        final long start = System.nanoTime();
+                        if (mLastReadEndNanos > 0) {
+                            final long pause = start - mLastReadEndNanos;
+                            mConsumerNanos += pause;
+                            mPaused |= pause > MAX_CONSUMER_PAUSE_NANOS;
+                        }
+
+                        final long read = super.read(sink, byteCount);
+                        mLastReadEndNanos = System.nanoTime();
+                        if (read < 0) {
+                            report(mLastReadEndNanos);
+                        } else {
+                            mBytes += read;
+                        }
+                        return read;
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        // a body closed before the end of the stream is not a sample
+                        mReported = true;
+                        super.close();
+                    }
+                });
+            }
+            return mSource;
+        }
+
+        private void report(long endNanos) {
+            if (mReported) {
+                return;
+            }
+            mReported = true;
+
+            final long elapsed = endNanos - mStartNanos;
+            if (mPaused || mConsumerNanos > MAX_CONSUMER_FRACTION * elapsed) {
+                // the consumer, not the network, set the pace
+                return;
+            }
+            onBandwidthSample(mBytes, elapsed);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.tenor.android.core.network;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v4.util.LruCache;
+import android.text.TextUtils;
+
+import com.tenor.android.core.constant.MediaFilter;
+import com.tenor.android.core.model.impl.Result;
+import com.tenor.android.core.response.impl.GifsResponse;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Looks up any number of GIFs by id with {@link IApiClient#getGifs(Map, String, String, String)}
+ * <p>
+ * The ids are deduped, the ones recently fetched are served from an in-memory {@link Result} cache,
+ * and the rest are split into batches short enough for a URL, which run in parallel with a bounded
+ * concurrency. The {@link Result}s are delivered in the requested order
+ */
+public class BulkGifsRequest {
+
+    /**
+     * Maximum number of ids in a single request
+     */
+    private static final int MAX_IDS_PER_BATCH = 50;
+
+    /**
+     * Maximum length of the comma separated ids of a single request, to keep the URL short
+     */
+    private static final int MAX_IDS_LENGTH = 1500;
+
+    /**
+     * Maximum number of batches running at the same time
+     */
+    private static final int MAX_CONCURRENT_BATCHES = 4;
+
+    private static final int CACHE_SIZE = 500;
+
+    private static final LruCache<String, Result> sCache = new LruCache<>(CACHE_SIZE);
+
+    private final IApiClient mClient;
+    private final Map<String, String> mServiceIds;
+    @MediaFilter.Value
+    private final String mMediaFilter;
+    private final String mAspectRatioRange;
+    private final List<String> mIds;
+    private final IBulkGifsListener mListener;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    // guarded by this
+    private final Map<String, Result> mResults = new HashMap<>();
+    private final ArrayDeque<String> mBatches = new ArrayDeque<>();
+    private final List<Call<GifsResponse>> mCalls = new ArrayList<>();
+    private int mRunning;
+    private boolean mCanceled;
+    @Nullable
+    private Throwable mThrowable;
+
+    BulkGifsRequest(@NonNull IApiClient client,
+                    @NonNull Map<String, String> serviceIds,
+                    @NonNull Collection<String> ids,
+                    @MediaFilter.Value String mediaFilter,
+                    String aspectRatioRange,
+                    @NonNull IBulkGifsListener listener) {
+        mClient = client;
+        mServiceIds = serviceIds;
+        mMediaFilter = mediaFilter;
+        mAspectRatioRange = aspectRatioRange;
+        mListener = listener;
+
+        final LinkedHashSet<String> unique = new LinkedHashSet<>(ids.size());
+        for (String id : ids) {
+            if (!TextUtils.isEmpty(id)) {
+                unique.add(id);
+            }
+        }
+        mIds = new ArrayList<>(unique);
+    }
+
+    synchronized void start() {
+        final StringBuilder batch = new StringBuilder();
+        int count = 0;
+        for (String id : mIds) {
+            final Result cached = sCache.get(getCacheKey(id));
+            if (cached != null) {
+                mResults.put(id, cached);
+                continue;
+            }
+
+            if (count == MAX_IDS_PER_BATCH
+                    || (count > 0 && batch.length() + id.length() + 1 > MAX_IDS_LENGTH)) {
+                mBatches.add(batch.toString());
+                batch.setLength(0);
+                count = 0;
+            }
+            if (count > 0) {
+                batch.append(',');
+            }
+            batch.append(id);
+            count++;
+        }
+        if (count > 0) {
+            mBatches.add(batch.toString());
+        }
+
+        if (mBatches.isEmpty()) {
+            deliver();
+            return;
+        }
+
+        while (mRunning < MAX_CONCURRENT_BATCHES && !mBatches.isEmpty()) {
+            startBatch(mBatches.poll());
+        }
+    }
+
+    /**
+     * Cancel the batches still running, the {@link IBulkGifsListener} will not be called
+     */
+    public void cancel() {
+        final List<Call<GifsResponse>> calls;
+        synchronized (this) {
+            if (mCanceled) {
+                return;
+            }
+            mCanceled = true;
+            mBatches.clear();
+            calls = new ArrayList<>(mCalls);
+            mCalls.clear();
+        }
+
+        // outside of the lock, a canceled call may call back onBatchDone() right away
+        for (Call<GifsResponse> call : calls) {
+            call.cancel();
+        }
+    }
+
+    private void startBatch(@NonNull String ids) {
+        final Call<GifsResponse> call = mClient.getGifs(mServiceIds, ids, mMediaFilter, mAspectRatioRange);
+        mCalls.add(call);
+        mRunning++;
+        call.enqueue(new Callback<GifsResponse>() {
+            @Override
+            public void onResponse(Call<GifsResponse> call, Response<GifsResponse> response) {
+                final GifsResponse body = response.body();
+                if (response.isSuccessful() && body != null) {
+                    onBatchDone(call, body.getResults(), null);
+                } else {
+                    onBatchDone(call, null, new IOException("getGifs failed with HTTP " + response.code()));
+                }
+            }
+
+            @Override
+            public void onFailure(Call<GifsResponse> call, Throwable throwable) {
+                onBatchDone(call, null, throwable);
+            }
+        });
+    }
+
+    private synchronized void onBatchDone(@NonNull Call<GifsResponse> call,
+                                          @Nullable List<Result> results,
+                                          @Nullable Throwable throwable) {
+        if (mCanceled) {
+            return;
+        }
+        mRunning--;
+        mCalls.remove(call);
+
+        if (results != null) {
+            for (Result result : results) {
+                if (result != null && !TextUtils.isEmpty(result.getId())) {
+                    mResults.put(result.getId(), result);
+                    sCache.put(getCacheKey(result.getId()), result);
+                }
+            }
+        }
+        if (throwable != null && mThrowable == null) {
+            mThrowable = throwable;
+        }
+
+        if (!mBatches.isEmpty()) {
+            startBatch(mBatches.poll());
+        } else if (mRunning == 0) {
+            deliver();
+        }
+    }
+
+    private void deliver() {
+        final List<Result> results = new ArrayList<>(mResults.size());
+        for (String id : mIds) {
+            final Result result = mResults.get(id);
+            if (result != null) {
+                results.add(result);
+            }
+        }
+
+        final Throwable throwable = mThrowable;
+        mHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                if (isCanceled()) {
+                    return;
+                }
+                if (throwable == null) {
+                    mListener.onReceiveGifsSucceeded(results);
+                } else {
+                    mListener.onReceiveGifsFailed(results, throwable);
+                }
+            }
+        });
+    }
+
+    private synchronized boolean isCanceled() {
+        return mCanceled;
+    }
+
+    /**
+     * A {@link Result} fetched with a {@link MediaFilter} may lack the media of another one, and
+     * one fetched with an aspect ratio range may have been filtered out by another one
+     */
+    @NonNull
+    private String getCacheKey(@NonNull String id) {
+        return mMediaFilter + ':' + mAspectRatioRange + ':' + id;
+    }
+}
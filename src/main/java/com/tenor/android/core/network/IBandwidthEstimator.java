@@ -0,0 +1,22 @@
+package com.tenor.android.core.network;
+
+/**
+ * Estimation of the network bandwidth and round trip time, measured from real responses
+ */
+public interface IBandwidthEstimator {
+
+    /**
+     * @return the estimated bandwidth in KB/s, or -1 if nothing has been measured yet
+     */
+    float getBandwidth();
+
+    /**
+     * @return the estimated round trip time in milliseconds, or -1 if nothing has been measured yet
+     */
+    long getRtt();
+
+    /**
+     * @return number of bandwidth samples taken so far
+     */
+    int sampleCount();
+}
@@ -0,0 +1,26 @@
+package com.tenor.android.core.network;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.tenor.android.core.model.impl.Result;
+
+import java.util.List;
+
+/**
+ * Callback for a bulk {@link ApiClient#getGifs(android.content.Context, java.util.Collection, String, String, IBulkGifsListener)}
+ * request is done, called on the main thread
+ */
+public interface IBulkGifsListener {
+
+    /**
+     * @param results the {@link Result}s in the requested order, the ids that are not found are left out
+     */
+    void onReceiveGifsSucceeded(@NonNull List<Result> results);
+
+    /**
+     * @param results   the {@link Result}s of the batches that succeeded, in the requested order
+     * @param throwable the {@link Throwable} of the first batch that failed
+     */
+    void onReceiveGifsFailed(@NonNull List<Result> results, @Nullable Throwable throwable);
+}
@@ -0,0 +1,25 @@
+package com.tenor.android.core.network;
+
+import android.support.annotation.NonNull;
+
+import com.tenor.android.core.response.impl.GifsResponse;
+
+import retrofit2.Call;
+
+/**
+ * Creates the {@link Call} of a page, such as {@link IApiClient#search} or {@link IApiClient#getTrending},
+ * for a {@link PagedGifsSource} or a {@link com.tenor.android.core.widget.PrefetchOnScrollListener}
+ *
+ * @param <T> the type of the paged response
+ */
+public interface IPageLoader<T extends GifsResponse> {
+
+    /**
+     * @param query the query of the page, empty for trending
+     * @param pos   the cursor of the page, empty for the first page
+     * @param limit the number of GIFs in the page
+     * @return the {@link Call} of the page, it will be enqueued by the caller
+     */
+    @NonNull
+    Call<T> load(@NonNull String query, @NonNull String pos, int limit);
+}
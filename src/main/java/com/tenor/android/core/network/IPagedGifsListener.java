@@ -0,0 +1,25 @@
+package com.tenor.android.core.network;
+
+import android.support.annotation.Nullable;
+
+/**
+ * Callback of a {@link PagedGifsSource}, called on the main thread, usually forwarded to the
+ * {@link android.support.v7.widget.RecyclerView.Adapter}
+ */
+public interface IPagedGifsListener {
+
+    /**
+     * A new page has been appended
+     */
+    void onItemRangeInserted(int positionStart, int itemCount);
+
+    /**
+     * A page that had been dropped has been loaded again, its placeholders can be rebound
+     */
+    void onItemRangeChanged(int positionStart, int itemCount);
+
+    /**
+     * @param throwable the {@link Throwable}
+     */
+    void onLoadFailed(@Nullable Throwable throwable);
+}
@@ -0,0 +1,28 @@
+package com.tenor.android.core.network;
+
+/**
+ * Gzip compression of request bodies, with the bytes it saved
+ */
+public interface IRequestCompressor {
+
+    /**
+     * @return the number of request bodies sent compressed
+     */
+    int getCompressedCount();
+
+    /**
+     * @return the total size of the compressed request bodies before compression, in bytes
+     */
+    long getUncompressedBytes();
+
+    /**
+     * @return the total size of the compressed request bodies after compression, in bytes
+     */
+    long getCompressedBytes();
+
+    /**
+     * @param host the host name
+     * @return true if the given host has rejected a compressed request body, and is no longer sent one
+     */
+    boolean isRejected(String host);
+}
@@ -0,0 +1,55 @@
+package com.tenor.android.core.network;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.tenor.android.core.response.AbstractResponse;
+
+/**
+ * In-memory cache of already parsed {@link AbstractResponse}s
+ */
+public interface IResponseMemoryCache {
+
+    /**
+     * @param key the cache key, usually built by {@link ResponseMemoryCache#createKey(okhttp3.Request)}
+     * @return the cached response, or {@code null} if it is absent or has expired; the same
+     * instance is returned to every caller, so it must not be modified
+     */
+    @Nullable
+    <T extends AbstractResponse> T get(@NonNull String key);
+
+    /**
+     * @param key      the cache key, usually built by {@link ResponseMemoryCache#createKey(okhttp3.Request)}
+     * @param response the parsed response
+     * @param size     the estimated size of the response in bytes
+     */
+    void put(@NonNull String key, @NonNull AbstractResponse response, long size);
+
+    /**
+     * Remove a single cached response
+     */
+    void remove(@NonNull String key);
+
+    /**
+     * Clear all cached responses
+     */
+    void evictAll();
+
+    int hitCount();
+
+    int missCount();
+
+    int evictionCount();
+
+    /**
+     * @return number of entries dropped because they have lived longer than the ttl
+     */
+    int expiredCount();
+
+    /**
+     * @return the sum of the estimated sizes of the cached responses in bytes
+     */
+    int size();
+
+    int maxSize();
+}
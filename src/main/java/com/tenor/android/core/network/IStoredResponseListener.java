@@ -0,0 +1,30 @@
+package com.tenor.android.core.network;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.tenor.android.core.response.AbstractResponse;
+
+/**
+ * Callback of a request served from a {@link ResponseStore} first, then from the network, called on
+ * the main thread
+ */
+public interface IStoredResponseListener<T extends AbstractResponse> {
+
+    /**
+     * Called first with the last known response, if any, unless the fresh one has already arrived
+     *
+     * @param response the stored response
+     */
+    void onStoredResponse(@NonNull T response);
+
+    /**
+     * @param response the response fetched from the network, which replaces the stored one
+     */
+    void onFreshResponse(@NonNull T response);
+
+    /**
+     * @param throwable the {@link Throwable}, the stored response, if any, remains the last known one
+     */
+    void onRefreshFailed(@Nullable Throwable throwable);
+}
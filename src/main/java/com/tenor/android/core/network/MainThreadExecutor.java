@@ -0,0 +1,20 @@
+package com.tenor.android.core.network;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.NonNull;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Runs the given {@link Runnable}s on the main thread, the default callback executor of Retrofit on Android
+ */
+class MainThreadExecutor implements Executor {
+
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    @Override
+    public void execute(@NonNull Runnable runnable) {
+        mHandler.post(runnable);
+    }
+}
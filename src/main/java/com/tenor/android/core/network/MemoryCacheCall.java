@@ -0,0 +1,187 @@
+package com.tenor.android.core.network;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.tenor.android.core.response.AbstractResponse;
+import com.tenor.android.core.response.impl.GifsResponse;
+
+import java.io.IOException;
+import java.util.concurrent.Executor;
+
+import okhttp3.Request;
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * A {@link Call} that serves the response from {@link IResponseMemoryCache} if available,
+ * otherwise it delegates to the wrapped {@link Call} and caches its successful response
+ * <p>
+ * Like any other Retrofit {@link Call}, a cached response is delivered to the {@link Callback}
+ * through the callback executor, and never synchronously from {@link #enqueue(Callback)}
+ * <p>
+ * The cached response object is shared by every call it is served to, so it must be treated as
+ * read-only; copy its results before modifying them
+ *
+ * @param <T> the type of response
+ */
+public class MemoryCacheCall<T> implements Call<T> {
+
+    /**
+     * Rough in-memory size of a parsed {@link com.tenor.android.core.model.impl.Result}
+     * with its full {@link com.tenor.android.core.model.impl.MediaCollection}
+     */
+    private static final int ESTIMATED_RESULT_SIZE = 4 * 1024;
+
+    private final Call<T> mDelegate;
+    private final IResponseMemoryCache mCache;
+    private final Executor mCallbackExecutor;
+    private String mKey;
+    private volatile boolean mExecuted;
+    private volatile boolean mCanceled;
+
+    /**
+     * Deliver the cached responses on the main thread
+     */
+    public MemoryCacheCall(@NonNull Call<T> delegate, @NonNull IResponseMemoryCache cache) {
+        this(delegate, cache, null);
+    }
+
+    /**
+     * @param callbackExecutor the executor of the {@link Callback}s, usually
+     *                         {@link retrofit2.Retrofit#callbackExecutor()}; the main thread if {@code null}
+     */
+    public MemoryCacheCall(@NonNull Call<T> delegate, @NonNull IResponseMemoryCache cache,
+                           @Nullable Executor callbackExecutor) {
+        mDelegate = delegate;
+        mCache = cache;
+        mCallbackExecutor = callbackExecutor != null ? callbackExecutor : new MainThreadExecutor();
+    }
+
+    @Override
+    public Response<T> execute() throws IOException {
+        markExecuted();
+        final T cached = getCached();
+        if (cached != null) {
+            return Response.success(cached);
+        }
+
+        final Response<T> response = mDelegate.execute();
+        store(response);
+        return response;
+    }
+
+    @Override
+    public void enqueue(final Callback<T> callback) {
+        markExecuted();
+        final T cached = getCached();
+        if (cached != null) {
+            mCallbackExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    // mirror Retrofit, which reports a call canceled before delivery through onFailure()
+                    if (mCanceled) {
+                        callback.onFailure(MemoryCacheCall.this, new IOException("Canceled"));
+                    } else {
+                        callback.onResponse(MemoryCacheCall.this, Response.success(cached));
+                    }
+                }
+            });
+            return;
+        }
+
+        mDelegate.enqueue(new Callback<T>() {
+            @Override
+            public void onResponse(Call<T> call, Response<T> response) {
+                store(response);
+                callback.onResponse(MemoryCacheCall.this, response);
+            }
+
+            @Override
+            public void onFailure(Call<T> call, Throwable throwable) {
+                callback.onFailure(MemoryCacheCall.this, throwable);
+            }
+        });
+    }
+
+    @Override
+    public boolean isExecuted() {
+        return mExecuted || mDelegate.isExecuted();
+    }
+
+    @Override
+    public void cancel() {
+        mCanceled = true;
+        mDelegate.cancel();
+    }
+
+    @Override
+    public boolean isCanceled() {
+        return mCanceled || mDelegate.isCanceled();
+    }
+
+    @SuppressWarnings("CloneDoesntCallSuperClone")
+    @Override
+    public Call<T> clone() {
+        return new MemoryCacheCall<>(mDelegate.clone(), mCache, mCallbackExecutor);
+    }
+
+    @Override
+    public Request request() {
+        return mDelegate.request();
+    }
+
+    private synchronized void markExecuted() {
+        if (mExecuted) {
+            throw new IllegalStateException("Already executed.");
+        }
+        mExecuted = true;
+    }
+
+    @NonNull
+    private synchronized String getKey() {
+        if (mKey == null) {
+            mKey = ResponseMemoryCache.createKey(request());
+        }
+        return mKey;
+    }
+
+    @Nullable
+    private T getCached() {
+        final AbstractResponse response = mCache.get(getKey());
+        //noinspection unchecked
+        return (T) response;
+    }
+
+    private void store(@Nullable Response<T> response) {
+        if (response == null || !response.isSuccessful()) {
+            return;
+        }
+
+        final T body = response.body();
+        if (!(body instanceof AbstractResponse) || ((AbstractResponse) body).hasError()) {
+            return;
+        }
+
+        final ResponseBody raw = response.raw().body();
+        final long contentLength = raw != null ? raw.contentLength() : -1;
+        mCache.put(getKey(), (AbstractResponse) body, estimateSize((AbstractResponse) body, contentLength));
+    }
+
+    /**
+     * The content length is not available for gzip encoded responses, so fall back to
+     * an estimation based on the number of results
+     */
+    private static long estimateSize(@NonNull AbstractResponse response, long contentLength) {
+        if (contentLength > 0) {
+            return contentLength;
+        }
+
+        if (response instanceof GifsResponse) {
+            return (long) ((GifsResponse) response).getResults().size() * ESTIMATED_RESULT_SIZE;
+        }
+        return -1;
+    }
+}
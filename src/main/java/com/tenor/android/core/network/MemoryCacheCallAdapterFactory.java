@@ -0,0 +1,77 @@
+package com.tenor.android.core.network;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.tenor.android.core.response.AbstractResponse;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import retrofit2.Call;
+import retrofit2.CallAdapter;
+import retrofit2.Retrofit;
+import retrofit2.http.GET;
+
+/**
+ * A {@link CallAdapter.Factory} that wraps the {@link Call}s of the paged endpoints,
+ * such as {@link IApiClient#search} and {@link IApiClient#getTrending}, with {@link MemoryCacheCall}
+ */
+public class MemoryCacheCallAdapterFactory extends CallAdapter.Factory {
+
+    private static final Set<String> CACHEABLE_ENDPOINTS =
+            Collections.unmodifiableSet(new HashSet<>(Arrays.asList("search", "trending")));
+
+    private final IResponseMemoryCache mCache;
+
+    public MemoryCacheCallAdapterFactory(@NonNull IResponseMemoryCache cache) {
+        mCache = cache;
+    }
+
+    @Nullable
+    @Override
+    public CallAdapter<?, ?> get(Type returnType, Annotation[] annotations, final Retrofit retrofit) {
+        if (getRawType(returnType) != Call.class || !(returnType instanceof ParameterizedType)) {
+            return null;
+        }
+
+        final Type responseType = getParameterUpperBound(0, (ParameterizedType) returnType);
+        if (!AbstractResponse.class.isAssignableFrom(getRawType(responseType)) || !isCacheable(annotations)) {
+            return null;
+        }
+
+        //noinspection unchecked
+        final CallAdapter<Object, Call<Object>> delegate =
+                (CallAdapter<Object, Call<Object>>) retrofit.nextCallAdapter(this, returnType, annotations);
+
+        return new CallAdapter<Object, Call<Object>>() {
+            @Override
+            public Type responseType() {
+                return delegate.responseType();
+            }
+
+            @Override
+            public Call<Object> adapt(Call<Object> call) {
+                return new MemoryCacheCall<>(delegate.adapt(call), mCache, retrofit.callbackExecutor());
+            }
+        };
+    }
+
+    private static boolean isCacheable(@Nullable Annotation[] annotations) {
+        if (annotations == null) {
+            return false;
+        }
+
+        for (Annotation annotation : annotations) {
+            if (annotation instanceof GET && CACHEABLE_ENDPOINTS.contains(((GET) annotation).value())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,362 @@
+package com.tenor.android.core.network;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.IntRange;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.tenor.android.core.constant.MediaFilter;
+import com.tenor.android.core.constant.StringConstant;
+import com.tenor.android.core.model.impl.Result;
+import com.tenor.android.core.response.impl.GifsResponse;
+import com.tenor.android.core.response.impl.TrendingGifResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Pages of {@link Result}s, such as of {@link IApiClient#search} or {@link IApiClient#getTrending},
+ * which only keeps a sliding window of pages in memory
+ * <p>
+ * Pages far from the last accessed position are dropped, and only remember their {@code pos}
+ * cursor and their size; {@link #get(int)} returns {@code null} as a placeholder for them and loads
+ * them again. An infinite scroll then holds O(window) {@link Result}s instead of O(history)
+ * <p>
+ * Responses are handled from a posted message, never from within {@link #get(int)}, so the
+ * {@link IPagedGifsListener} can notify a {@link android.support.v7.widget.RecyclerView} even when a
+ * page is served synchronously, such as from the memory cache, during a layout pass
+ */
+@MainThread
+public class PagedGifsSource {
+
+    /**
+     * Load the next page once the accessed position is this close to the end
+     */
+    private static final int PREFETCH_DISTANCE = 10;
+
+    private static final int MIN_PAGES = 3;
+
+    private final IPageLoader<?> mLoader;
+    private final String mQuery;
+    private final int mPageSize;
+    private final int mMaxPages;
+    private final IPagedGifsListener mListener;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final List<Page> mPages = new ArrayList<>();
+    private int mSize;
+    private boolean mEnd;
+    private int mAnchor;
+    @Nullable
+    private Call<?> mAppendCall;
+    private boolean mCanceled;
+
+    /**
+     * @param loader   the {@link IPageLoader}
+     * @param query    the query passed to the {@link IPageLoader}, empty for trending
+     * @param pageSize the number of {@link Result}s in a page
+     * @param maxPages the maximum number of pages kept in memory, at least 3
+     * @param listener the {@link IPagedGifsListener}
+     */
+    public PagedGifsSource(@NonNull IPageLoader<?> loader,
+                           @Nullable String query,
+                           @IntRange(from = 1) int pageSize,
+                           @IntRange(from = MIN_PAGES) int maxPages,
+                           @NonNull IPagedGifsListener listener) {
+        mLoader = loader;
+        mQuery = StringConstant.getOrEmpty(query);
+        mPageSize = Math.max(pageSize, 1);
+        mMaxPages = Math.max(maxPages, MIN_PAGES);
+        mListener = listener;
+    }
+
+    /**
+     * @return a {@link PagedGifsSource} of {@link IApiClient#search}
+     */
+    @NonNull
+    public static PagedGifsSource search(@NonNull final Context context,
+                                         @NonNull final String query,
+                                         @IntRange(from = 1) int pageSize,
+                                         @IntRange(from = MIN_PAGES) int maxPages,
+                                         @MediaFilter.Value final String mediaFilter,
+                                         final String aspectRatioRange,
+                                         @NonNull IPagedGifsListener listener) {
+        final Context app = context.getApplicationContext();
+        return new PagedGifsSource(new IPageLoader<GifsResponse>() {
+            @NonNull
+            @Override
+            public Call<GifsResponse> load(@NonNull String query, @NonNull String pos, int limit) {
+                final Map<String, String> serviceIds = ApiClient.getServiceIds(app);
+                return ApiClient.getInstance(app).search(serviceIds, query, limit, pos, mediaFilter, aspectRatioRange);
+            }
+        }, query, pageSize, maxPages, listener);
+    }
+
+    /**
+     * @return a {@link PagedGifsSource} of {@link IApiClient#getTrending}
+     */
+    @NonNull
+    public static PagedGifsSource trending(@NonNull final Context context,
+                                           @IntRange(from = 1) int pageSize,
+                                           @IntRange(from = MIN_PAGES) int maxPages,
+                                           @MediaFilter.Value final String mediaFilter,
+                                           final String aspectRatioRange,
+                                           @NonNull IPagedGifsListener listener) {
+        final Context app = context.getApplicationContext();
+        return new PagedGifsSource(new IPageLoader<TrendingGifResponse>() {
+            @NonNull
+            @Override
+            public Call<TrendingGifResponse> load(@NonNull String query, @NonNull String pos, int limit) {
+                final Map<String, String> serviceIds = ApiClient.getServiceIds(app);
+                return ApiClient.getInstance(app).getTrending(serviceIds, limit, pos, mediaFilter, aspectRatioRange);
+            }
+        }, StringConstant.EMPTY, pageSize, maxPages, listener);
+    }
+
+    /**
+     * @return the number of {@link Result}s loaded so far, placeholders of the dropped pages included
+     */
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * @return true if more pages can be appended
+     */
+    public boolean hasMore() {
+        return !mEnd;
+    }
+
+    /**
+     * Get the {@link Result} at the given position, usually from
+     * {@link android.support.v7.widget.RecyclerView.Adapter#onBindViewHolder}
+     * <p>
+     * Also moves the window around the given position, and loads the next page once the position
+     * is close to the end
+     *
+     * @param position the position
+     * @return the {@link Result}, or {@code null} as a placeholder if its page is being loaded again
+     */
+    @Nullable
+    public Result get(int position) {
+        final int index = findPage(position);
+        if (index < 0) {
+            return null;
+        }
+
+        mAnchor = index;
+        // keep the neighbors resident, so scrolling back does not hit placeholders
+        for (int i = Math.max(index - 1, 0); i <= Math.min(index + 1, mPages.size() - 1); i++) {
+            reload(mPages.get(i));
+        }
+
+        if (position >= mSize - PREFETCH_DISTANCE) {
+            loadMore();
+        }
+
+        final Page page = mPages.get(index);
+        return page.results != null ? page.results.get(position - page.start) : null;
+    }
+
+    /**
+     * Append the next page, if any, and if it is not being loaded already
+     */
+    public void loadMore() {
+        if (mEnd || mCanceled || mAppendCall != null) {
+            return;
+        }
+
+        final String pos = mPages.isEmpty() ? "" : mPages.get(mPages.size() - 1).next;
+        final Page page = new Page(pos, mSize);
+        mAppendCall = enqueue(mLoader.load(mQuery, pos, mPageSize), page, true);
+    }
+
+    /**
+     * Cancel the pages being loaded, the {@link IPagedGifsListener} will not be called anymore
+     */
+    public void cancel() {
+        mCanceled = true;
+        if (mAppendCall != null) {
+            mAppendCall.cancel();
+            mAppendCall = null;
+        }
+        for (Page page : mPages) {
+            if (page.call != null) {
+                page.call.cancel();
+                page.call = null;
+            }
+        }
+    }
+
+    private void reload(@NonNull Page page) {
+        if (page.results != null || page.call != null || mCanceled) {
+            return;
+        }
+        page.call = enqueue(mLoader.load(mQuery, page.pos, page.count), page, false);
+    }
+
+    /**
+     * The response is handled from a posted message, so the pages only change, and the
+     * {@link IPagedGifsListener} is only called, once the current layout pass, if any, is over
+     */
+    @NonNull
+    private <R extends GifsResponse> Call<R> enqueue(@NonNull Call<R> call, @NonNull final Page page,
+                                                     final boolean append) {
+        call.enqueue(new Callback<R>() {
+            @Override
+            public void onResponse(final Call<R> call, final Response<R> response) {
+                post(new Runnable() {
+                    @Override
+                    public void run() {
+                        final R body = response.body();
+                        if (!response.isSuccessful() || body == null || body.hasError()) {
+                            final IOException exception = new IOException("page failed with HTTP " + response.code());
+                            onLoadFailed(page, append, call, exception);
+                        } else if (append) {
+                            onAppended(page, body);
+                        } else {
+                            onReloaded(page, body);
+                        }
+                    }
+                });
+            }
+
+            @Override
+            public void onFailure(final Call<R> call, final Throwable throwable) {
+                post(new Runnable() {
+                    @Override
+                    public void run() {
+                        onLoadFailed(page, append, call, throwable);
+                    }
+                });
+            }
+        });
+        return call;
+    }
+
+    private void post(@NonNull final Runnable runnable) {
+        mHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                if (!mCanceled) {
+                    runnable.run();
+                }
+            }
+        });
+    }
+
+    private void onLoadFailed(@NonNull Page page, boolean append,
+                              @NonNull Call<?> call, @NonNull Throwable throwable) {
+        if (append) {
+            mAppendCall = null;
+        } else {
+            page.call = null;
+        }
+
+        if (!call.isCanceled()) {
+            mListener.onLoadFailed(throwable);
+        }
+    }
+
+    private void onAppended(@NonNull Page page, @NonNull GifsResponse response) {
+        mAppendCall = null;
+
+        final List<Result> results = response.getResults();
+        page.next = response.getNext();
+        page.count = results.size();
+        page.results = new ArrayList<>(results);
+        mEnd = !response.hasNext() || results.isEmpty();
+        if (page.count == 0) {
+            return;
+        }
+
+        mPages.add(page);
+        mSize += page.count;
+        evict();
+        mListener.onItemRangeInserted(page.start, page.count);
+    }
+
+    private void onReloaded(@NonNull Page page, @NonNull GifsResponse response) {
+        page.call = null;
+
+        /*
+         * The content behind a cursor can change in the meantime; the page keeps its size, so the
+         * positions after it do not shift, and extra or missing results are dropped or left empty
+         */
+        final List<Result> results = response.getResults();
+        final Result[] reloaded = new Result[page.count];
+        for (int i = 0; i < page.count && i < results.size(); i++) {
+            reloaded[i] = results.get(i);
+        }
+        page.results = Arrays.asList(reloaded);
+        evict();
+        mListener.onItemRangeChanged(page.start, page.count);
+    }
+
+    /**
+     * Drop the pages outside of the window around the last accessed page
+     */
+    private void evict() {
+        final int half = mMaxPages / 2;
+        Page page;
+        for (int i = 0; i < mPages.size(); i++) {
+            page = mPages.get(i);
+            if (Math.abs(i - mAnchor) > half && page.results != null) {
+                page.results = null;
+            }
+        }
+    }
+
+    /**
+     * @return the index of the page of the given position, or -1 if it has not been loaded
+     */
+    private int findPage(int position) {
+        if (position < 0 || position >= mSize) {
+            return -1;
+        }
+
+        int low = 0;
+        int high = mPages.size() - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final Page page = mPages.get(mid);
+            if (position < page.start) {
+                high = mid - 1;
+            } else if (position >= page.start + page.count) {
+                low = mid + 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private static class Page {
+
+        /**
+         * The cursor the page has been requested with
+         */
+        private final String pos;
+        private final int start;
+        private String next;
+        private int count;
+        @Nullable
+        private List<Result> results;
+        @Nullable
+        private Call<?> call;
+
+        Page(@NonNull String pos, int start) {
+            this.pos = pos;
+            this.start = start;
+        }
+    }
+}
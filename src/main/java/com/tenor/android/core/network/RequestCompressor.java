@@ -0,0 +1,154 @@
+package com.tenor.android.core.network;
+
+import android.support.annotation.IntRange;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.GzipSink;
+import okio.Okio;
+
+/**
+ * An {@link IRequestCompressor} installed as an application {@link Interceptor}
+ * <p>
+ * Request bodies of at least the given size, such as batched {@code registeraction} posts, are sent
+ * with {@code Content-Encoding: gzip}. If the server answers a compressed request with
+ * {@code 415 Unsupported Media Type}, or with a {@code 400 Bad Request} whose headers or body point
+ * at the content encoding, the request is sent again uncompressed, and if that one goes through,
+ * the host is no longer sent compressed bodies; any other {@code 400} is returned as is
+ */
+public class RequestCompressor implements IRequestCompressor, Interceptor {
+
+    private static final String CONTENT_ENCODING = "Content-Encoding";
+    private static final String ACCEPT_ENCODING = "Accept-Encoding";
+    private static final String GZIP = "gzip";
+
+    private static final int HTTP_BAD_REQUEST = 400;
+    private static final int HTTP_UNSUPPORTED_MEDIA_TYPE = 415;
+
+    /**
+     * Number of bytes of a {@code 400} body searched for a mention of the encoding
+     */
+    private static final long MAX_ERROR_PEEK = 2048;
+
+    private final long mMinSize;
+    private final Set<String> mRejectedHosts = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    private int mCompressedCount;
+    private long mUncompressedBytes;
+    private long mCompressedBytes;
+
+    /**
+     * @param minSize the minimum size of a request body to compress, in bytes
+     */
+    public RequestCompressor(@IntRange(from = 0) long minSize) {
+        mMinSize = Math.max(minSize, 0);
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        final Request request = chain.request();
+        final RequestBody body = request.body();
+        if (body == null
+                || request.header(CONTENT_ENCODING) != null
+                || mRejectedHosts.contains(request.url().host())) {
+            return chain.proceed(request);
+        }
+
+        final long length = body.contentLength();
+        if (length >= 0 && length < mMinSize) {
+            return chain.proceed(request);
+        }
+
+        final Buffer uncompressed = new Buffer();
+        body.writeTo(uncompressed);
+        final long uncompressedLength = uncompressed.size();
+        if (uncompressedLength < mMinSize) {
+            return chain.proceed(request);
+        }
+
+        final Buffer compressed = new Buffer();
+        final BufferedSink sink = Okio.buffer(new GzipSink(compressed));
+        sink.writeAll(uncompressed);
+        sink.close();
+
+        final long compressedLength = compressed.size();
+        if (compressedLength >= uncompressedLength) {
+            return chain.proceed(request);
+        }
+
+        final Request gzipped = request.newBuilder()
+                .header(CONTENT_ENCODING, GZIP)
+                .method(request.method(), RequestBody.create(body.contentType(), compressed.readByteString()))
+                .build();
+
+        final Response response = chain.proceed(gzipped);
+        if (!isEncodingRejected(response)) {
+            onCompressed(uncompressedLength, compressedLength);
+            return response;
+        }
+
+        response.close();
+        final Response retry = chain.proceed(request);
+        if (retry.code() != response.code()) {
+            // the server does not accept a compressed body, send it as is from now on
+            mRejectedHosts.add(request.url().host());
+        }
+        return retry;
+    }
+
+    @Override
+    public synchronized int getCompressedCount() {
+        return mCompressedCount;
+    }
+
+    @Override
+    public synchronized long getUncompressedBytes() {
+        return mUncompressedBytes;
+    }
+
+    @Override
+    public synchronized long getCompressedBytes() {
+        return mCompressedBytes;
+    }
+
+    @Override
+    public boolean isRejected(String host) {
+        return mRejectedHosts.contains(host);
+    }
+
+    /**
+     * @return true if the response rejects the compressed body rather than its content
+     */
+    private static boolean isEncodingRejected(Response response) throws IOException {
+        if (response.code() == HTTP_UNSUPPORTED_MEDIA_TYPE) {
+            return true;
+        }
+        if (response.code() != HTTP_BAD_REQUEST) {
+            return false;
+        }
+
+        // RFC 7694, a server lists the content codings it accepts when rejecting one
+        if (response.header(ACCEPT_ENCODING) != null) {
+            return true;
+        }
+
+        final String body = response.peekBody(MAX_ERROR_PEEK).string().toLowerCase(Locale.US);
+        return body.contains("encoding") || body.contains(GZIP) || body.contains("compress");
+    }
+
+    private synchronized void onCompressed(long uncompressed, long compressed) {
+        mCompressedCount++;
+        mUncompressedBytes += uncompressed;
+        mCompressedBytes += compressed;
+    }
+}
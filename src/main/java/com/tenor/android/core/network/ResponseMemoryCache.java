@@ -0,0 +1,162 @@
+package com.tenor.android.core.network;
+
+import android.os.SystemClock;
+import android.support.annotation.IntRange;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v4.util.LruCache;
+import android.text.TextUtils;
+
+import com.tenor.android.core.constant.StringConstant;
+import com.tenor.android.core.response.AbstractResponse;
+
+import okhttp3.HttpUrl;
+import okhttp3.Request;
+
+/**
+ * A bounded, size-aware {@link IResponseMemoryCache} backed by {@link LruCache}
+ * <p>
+ * Entries are dropped once they have lived longer than the given ttl, so revisiting a page within
+ * the ttl costs neither disk I/O nor JSON parsing
+ */
+public class ResponseMemoryCache implements IResponseMemoryCache {
+
+    /**
+     * The query parameters that make two requests to the same endpoint return the same page
+     */
+    private static final String[] KEY_PARAMS = {"q", "limit", "pos", "media_filter", "ar_range", "locale"};
+
+    /**
+     * Fallback estimation of the in-memory size of a response if its content length is unknown
+     */
+    private static final int DEFAULT_ENTRY_SIZE = 16 * 1024;
+
+    private final LruCache<String, Entry> mCache;
+    private final long mTtl;
+    private int mExpiredCount;
+
+    /**
+     * @param maxSize the maximum sum of the estimated sizes of the cached responses in bytes
+     * @param ttl     how long a cached response stays valid, in milliseconds
+     */
+    public ResponseMemoryCache(@IntRange(from = 1) int maxSize, @IntRange(from = 0) long ttl) {
+        mCache = new LruCache<String, Entry>(maxSize) {
+            @Override
+            protected int sizeOf(String key, Entry entry) {
+                return entry.size;
+            }
+        };
+        mTtl = ttl;
+    }
+
+    @Nullable
+    @Override
+    public <T extends AbstractResponse> T get(@NonNull String key) {
+        final Entry entry = mCache.get(key);
+        if (entry == null) {
+            return null;
+        }
+
+        if (SystemClock.elapsedRealtime() - entry.timestamp > mTtl) {
+            mCache.remove(key);
+            synchronized (this) {
+                mExpiredCount++;
+            }
+            return null;
+        }
+
+        //noinspection unchecked
+        return (T) entry.response;
+    }
+
+    @Override
+    public void put(@NonNull String key, @NonNull AbstractResponse response, long size) {
+        final int s = size > 0 && size < Integer.MAX_VALUE ? (int) size : DEFAULT_ENTRY_SIZE;
+        if (s > mCache.maxSize()) {
+            // never let a single response flush the entire cache
+            return;
+        }
+        mCache.put(key, new Entry(response, s, SystemClock.elapsedRealtime()));
+    }
+
+    @Override
+    public void remove(@NonNull String key) {
+        mCache.remove(key);
+    }
+
+    @Override
+    public void evictAll() {
+        mCache.evictAll();
+    }
+
+    @Override
+    public int hitCount() {
+        return mCache.hitCount();
+    }
+
+    @Override
+    public int missCount() {
+        return mCache.missCount();
+    }
+
+    @Override
+    public int evictionCount() {
+        return mCache.evictionCount();
+    }
+
+    @Override
+    public synchronized int expiredCount() {
+        return mExpiredCount;
+    }
+
+    @Override
+    public int size() {
+        return mCache.size();
+    }
+
+    @Override
+    public int maxSize() {
+        return mCache.maxSize();
+    }
+
+    @Override
+    public String toString() {
+        return "ResponseMemoryCache[size=" + size() + ", maxSize=" + maxSize()
+                + ", hits=" + hitCount() + ", misses=" + missCount()
+                + ", evictions=" + evictionCount() + ", expired=" + expiredCount() + "]";
+    }
+
+    /**
+     * Build a cache key out of the endpoint and the query parameters that identify a page,
+     * such as {@code q}, {@code pos}, {@code media_filter}, {@code ar_range} and {@code locale}
+     *
+     * @param request the {@link Request}
+     * @return the cache key
+     */
+    @NonNull
+    public static String createKey(@NonNull Request request) {
+        final HttpUrl url = request.url();
+        final StringBuilder sb = new StringBuilder(url.encodedPath());
+        String value;
+        for (String param : KEY_PARAMS) {
+            value = url.queryParameter(param);
+            if (TextUtils.isEmpty(value)) {
+                continue;
+            }
+            sb.append(StringConstant.PIPE).append(param).append('=').append(value);
+        }
+        return sb.toString();
+    }
+
+    private static class Entry {
+        private final AbstractResponse response;
+        private final int size;
+        private final long timestamp;
+
+        private Entry(@NonNull AbstractResponse response, int size, long timestamp) {
+            this.response = response;
+            this.size = size;
+            this.timestamp = timestamp;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.tenor.android.core.network;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.WorkerThread;
+
+import com.tenor.android.core.response.AbstractResponse;
+import com.tenor.android.core.util.AbstractIOUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Persistent store of the last known responses, such as trending GIFs and tags, so the UI can
+ * render them right away on a cold start while a fresh copy is fetched
+ * <p>
+ * Each response is written in Java serialization through GZIP, one file per key, and replaced
+ * through an atomic rename. Revalidation with ETag and If-Modified-Since is left to the HTTP cache
+ * of the {@link okhttp3.OkHttpClient}, which turns a {@code 304 Not Modified} into the cached response
+ */
+public class ResponseStore {
+
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * Stored responses older than this are not shown anymore
+     */
+    private static final long MAX_AGE = TimeUnit.DAYS.toMillis(7);
+
+    private final File mDir;
+    private final ExecutorService mExecutor = Executors.newSingleThreadExecutor();
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    /**
+     * @param dir the directory of the stored responses
+     */
+    public ResponseStore(@NonNull File dir) {
+        mDir = dir;
+    }
+
+    /**
+     * Serve the response stored under the given key, if any, then enqueue the given {@link Call}
+     * and store its response
+     *
+     * @param key      the key, which should include the locale and every parameter of the call
+     * @param cls      the class of the response
+     * @param call     the {@link Call} fetching a fresh response
+     * @param listener the {@link IStoredResponseListener}
+     * @return the given {@link Call}, which can be canceled
+     */
+    @NonNull
+    public <T extends AbstractResponse> Call<T> enqueue(@NonNull final String key,
+                                                        @NonNull final Class<T> cls,
+                                                        @NonNull final Call<T> call,
+                                                        @NonNull final IStoredResponseListener<T> listener) {
+        final AtomicBoolean fresh = new AtomicBoolean();
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final T stored = read(key, cls);
+                if (stored == null) {
+                    return;
+                }
+
+                mHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (!fresh.get() && !call.isCanceled()) {
+                            listener.onStoredResponse(stored);
+                        }
+                    }
+                });
+            }
+        });
+
+        call.enqueue(new Callback<T>() {
+            @Override
+            public void onResponse(Call<T> call, Response<T> response) {
+                final T body = response.body();
+                if (!response.isSuccessful() || body == null || body.hasError()) {
+                    listener.onRefreshFailed(new IOException("refresh failed with HTTP " + response.code()));
+                    return;
+                }
+
+                fresh.set(true);
+                mExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        write(key, body);
+                    }
+                });
+                listener.onFreshResponse(body);
+            }
+
+            @Override
+            public void onFailure(Call<T> call, Throwable throwable) {
+                listener.onRefreshFailed(throwable);
+            }
+        });
+        return call;
+    }
+
+    /**
+     * @return the response stored under the given key, or {@code null} if it is absent, too old,
+     * or not of the given class
+     */
+    @Nullable
+    @WorkerThread
+    public <T extends AbstractResponse> T read(@NonNull String key, @NonNull Class<T> cls) {
+        final File file = getFile(key);
+        if (!file.exists()) {
+            return null;
+        }
+
+        ObjectInputStream in = null;
+        try {
+            in = new ObjectInputStream(new GZIPInputStream(new BufferedInputStream(new FileInputStream(file))));
+            if (in.readInt() != FORMAT_VERSION || !key.equals(in.readUTF())) {
+                return null;
+            }
+
+            final long storedAt = in.readLong();
+            if (System.currentTimeMillis() - storedAt > MAX_AGE) {
+                return null;
+            }
+
+            final Object response = in.readObject();
+            return cls.isInstance(response) ? cls.cast(response) : null;
+        } catch (IOException | ClassNotFoundException | RuntimeException ignored) {
+            // corrupted, or written by an incompatible version of the models
+            return null;
+        } finally {
+            AbstractIOUtils.close(in);
+        }
+    }
+
+    /**
+     * Store the given response under the given key, replacing the previous one
+     */
+    @WorkerThread
+    public void write(@NonNull String key, @NonNull AbstractResponse response) {
+        if (!mDir.exists() && !mDir.mkdirs()) {
+            return;
+        }
+
+        final File file = getFile(key);
+        final File tmp = new File(file.getPath() + ".tmp");
+        ObjectOutputStream out = null;
+        try {
+            out = new ObjectOutputStream(new GZIPOutputStream(new BufferedOutputStream(new FileOutputStream(tmp))));
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(key);
+            out.writeLong(System.currentTimeMillis());
+            out.writeObject(response);
+            out.close();
+            out = null;
+        } catch (IOException ignored) {
+            AbstractIOUtils.close(out);
+            //noinspection ResultOfMethodCallIgnored
+            tmp.delete();
+            return;
+        }
+
+        //noinspection ResultOfMethodCallIgnored
+        tmp.renameTo(file);
+    }
+
+    @NonNull
+    private File getFile(@NonNull String key) {
+        // the key is written in the file as well, to tell collisions apart
+        return new File(mDir, Integer.toHexString(key.hashCode()) + ".bin");
+    }
+}
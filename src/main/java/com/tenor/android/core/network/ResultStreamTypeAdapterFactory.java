@@ -0,0 +1,70 @@
+package com.tenor.android.core.network;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.tenor.android.core.model.impl.Result;
+import com.tenor.android.core.response.IResultStreamListener;
+
+import java.io.IOException;
+
+/**
+ * A {@link TypeAdapterFactory} that reports every {@link Result} to the {@link IResultStreamListener}
+ * bound to the current thread as soon as it has been read out of the {@link JsonReader}
+ * <p>
+ * Retrofit parses the response body on the thread that executes the call while it is still
+ * downloading, so binding a listener around {@link retrofit2.Call#execute()} streams the results
+ * one by one instead of waiting for the whole body
+ * <p>
+ * Register it last on the {@link com.google.gson.GsonBuilder}, so it wraps every other {@link Result} adapter
+ */
+public class ResultStreamTypeAdapterFactory implements TypeAdapterFactory {
+
+    private static final ThreadLocal<IResultStreamListener> sListener = new ThreadLocal<>();
+
+    /**
+     * Bind the given {@link IResultStreamListener} to the current thread
+     */
+    public static void bind(@NonNull IResultStreamListener listener) {
+        sListener.set(listener);
+    }
+
+    /**
+     * Unbind the {@link IResultStreamListener} from the current thread
+     */
+    public static void unbind() {
+        sListener.remove();
+    }
+
+    @Nullable
+    @Override
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        if (type.getRawType() != Result.class) {
+            return null;
+        }
+
+        final TypeAdapter<T> delegate = gson.getDelegateAdapter(this, type);
+        return new TypeAdapter<T>() {
+            @Override
+            public void write(JsonWriter out, T value) throws IOException {
+                delegate.write(out, value);
+            }
+
+            @Override
+            public T read(JsonReader in) throws IOException {
+                final T value = delegate.read(in);
+                final IResultStreamListener listener = sListener.get();
+                if (listener != null && value != null) {
+                    listener.onResultParsed((Result) value);
+                }
+                return value;
+            }
+        };
+    }
+}
@@ -0,0 +1,121 @@
+package com.tenor.android.core.network;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.support.annotation.NonNull;
+import android.support.v4.util.ArrayMap;
+import android.text.TextUtils;
+
+import com.tenor.android.core.constant.ScreenDensity;
+import com.tenor.android.core.service.AaidService;
+import com.tenor.android.core.util.AbstractLocaleUtils;
+import com.tenor.android.core.util.AbstractSessionUtils;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Immutable, versioned snapshot of {@link ApiClient#getServiceIds(Context)}
+ * <p>
+ * The snapshot is only rebuilt once the anon id or the AAID is stored, which bumps its version, or
+ * once the locale or the screen density of the given {@link Context} no longer matches it, so
+ * building a request is a field read instead of several {@link SharedPreferences} reads
+ */
+class ServiceIdsCache implements SharedPreferences.OnSharedPreferenceChangeListener {
+
+    private final AtomicInteger mVersion = new AtomicInteger();
+    private volatile Snapshot mSnapshot;
+    private volatile boolean mRegistered;
+
+    @NonNull
+    Map<String, String> get(@NonNull Context context, @NonNull String apiKey) {
+        final Snapshot snapshot = mSnapshot;
+        final int version = mVersion.get();
+        if (snapshot != null && snapshot.matches(context, apiKey, version)) {
+            return snapshot.serviceIds;
+        }
+
+        register(context);
+        final Snapshot rebuilt = new Snapshot(context, apiKey, version);
+        // a change in the meantime bumped the version, so this one is rebuilt on the next call
+        mSnapshot = rebuilt;
+        return rebuilt.serviceIds;
+    }
+
+    /**
+     * Rebuild the snapshot on the next {@link #get(Context, String)}
+     */
+    void invalidate() {
+        mVersion.incrementAndGet();
+    }
+
+    @Override
+    public void onSharedPreferenceChanged(SharedPreferences preferences, String key) {
+        invalidate();
+    }
+
+    private void register(@NonNull Context context) {
+        if (mRegistered) {
+            return;
+        }
+
+        synchronized (this) {
+            if (!mRegistered) {
+                // held strongly by this cache, as SharedPreferences only keeps a weak reference
+                AbstractSessionUtils.registerOnSessionChangeListener(context, this);
+                mRegistered = true;
+            }
+        }
+    }
+
+    private static class Snapshot {
+
+        private final int version;
+        private final String apiKey;
+        private final Locale locale;
+        private final float density;
+        private final Map<String, String> serviceIds;
+
+        Snapshot(@NonNull Context context, @NonNull String apiKey, int version) {
+            this.version = version;
+            this.apiKey = apiKey;
+            this.locale = AbstractLocaleUtils.getCurrentLocale(context);
+            this.density = context.getResources().getDisplayMetrics().density;
+
+            final ArrayMap<String, String> map = new ArrayMap<>(6);
+
+            // API Key
+            map.put("key", apiKey);
+
+            /*
+             * The following fields work together to delivery a more accurate and better experience
+             *
+             * 1. `anon_id`, a non-id or its older version, keyboard is used to roughly identify a user;
+             * 2. `aaid`, Android Advertise Id, is also used in case "keyboardid" or "anon_id" mutates
+             * 3. `locale` is used to deliver curated language/regional specific contents to users
+             * 4. `screen_density` is used to optimize the content size to the device
+             */
+            final String id = AbstractSessionUtils.getAnonId(context);
+            map.put(id.length() <= 20 ? "keyboardid" : "anon_id", id);
+
+            final String aaid = AbstractSessionUtils.getAndroidAdvertiseId(context);
+            if (TextUtils.isEmpty(aaid)) {
+                // requested once per snapshot, instead of on every call, until it is stored
+                AaidService.requestAaid(context);
+            }
+            map.put("aaid", aaid);
+            map.put("locale", locale.toString());
+            map.put("screen_density", ScreenDensity.get(context));
+            this.serviceIds = Collections.unmodifiableMap(map);
+        }
+
+        boolean matches(@NonNull Context context, @NonNull String apiKey, int version) {
+            return this.version == version
+                    && this.apiKey.equals(apiKey)
+                    && this.locale.equals(AbstractLocaleUtils.getCurrentLocale(context))
+                    && this.density == context.getResources().getDisplayMetrics().density;
+        }
+    }
+}
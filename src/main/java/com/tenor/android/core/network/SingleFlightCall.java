@@ -0,0 +1,125 @@
+package com.tenor.android.core.network;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.concurrent.Executor;
+
+import okhttp3.Request;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * A {@link Call} that joins an identical in-flight call of the same {@link SingleFlightGroup}
+ * on {@link #enqueue(Callback)} and {@link #execute()} instead of issuing its own network call
+ * <p>
+ * Canceling an enqueued call reports {@link Callback#onFailure(Call, Throwable)} through the
+ * callback executor, never synchronously from {@link #cancel()}
+ *
+ * @param <T> the type of response
+ */
+public class SingleFlightCall<T> implements Call<T> {
+
+    private final Call<T> mDelegate;
+    private final SingleFlightGroup mGroup;
+    private final Executor mCallbackExecutor;
+    private String mKey;
+    private volatile boolean mExecuted;
+    private volatile boolean mCanceled;
+
+    /**
+     * Report the cancellations on the main thread
+     */
+    public SingleFlightCall(@NonNull Call<T> delegate, @NonNull SingleFlightGroup group) {
+        this(delegate, group, null);
+    }
+
+    /**
+     * @param callbackExecutor the executor of the {@link Callback}s, usually
+     *                         {@link retrofit2.Retrofit#callbackExecutor()}; the main thread if {@code null}
+     */
+    public SingleFlightCall(@NonNull Call<T> delegate, @NonNull SingleFlightGroup group,
+                            @Nullable Executor callbackExecutor) {
+        mDelegate = delegate;
+        mGroup = group;
+        mCallbackExecutor = callbackExecutor != null ? callbackExecutor : new MainThreadExecutor();
+    }
+
+    @Override
+    public Response<T> execute() throws IOException {
+        markExecuted();
+        return mGroup.execute(getKey(), this, mDelegate);
+    }
+
+    @Override
+    public void enqueue(Callback<T> callback) {
+        markExecuted();
+        mGroup.join(getKey(), this, mDelegate, callback);
+    }
+
+    @Override
+    public boolean isExecuted() {
+        return mExecuted || mDelegate.isExecuted();
+    }
+
+    @Override
+    public void cancel() {
+        mCanceled = true;
+        if (!mExecuted) {
+            mDelegate.cancel();
+            return;
+        }
+
+        // mirror OkHttp, which reports a canceled call through onFailure()
+        final Callback<T> callback = mGroup.leave(getKey(), this);
+        if (callback instanceof SingleFlightGroup.BlockingCallback) {
+            // wakes up the thread blocked in execute(), which holds no state of the caller
+            callback.onFailure(this, new IOException("Canceled"));
+        } else if (callback != null) {
+            mCallbackExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    callback.onFailure(SingleFlightCall.this, new IOException("Canceled"));
+                }
+            });
+        }
+    }
+
+    @Override
+    public boolean isCanceled() {
+        return mCanceled || mDelegate.isCanceled();
+    }
+
+    @SuppressWarnings("CloneDoesntCallSuperClone")
+    @Override
+    public Call<T> clone() {
+        return new SingleFlightCall<>(mDelegate.clone(), mGroup, mCallbackExecutor);
+    }
+
+    @Override
+    public Request request() {
+        return mDelegate.request();
+    }
+
+    @NonNull
+    Executor getCallbackExecutor() {
+        return mCallbackExecutor;
+    }
+
+    private synchronized void markExecuted() {
+        if (mExecuted) {
+            throw new IllegalStateException("Already executed.");
+        }
+        mExecuted = true;
+    }
+
+    @NonNull
+    private synchronized String getKey() {
+        if (mKey == null) {
+            mKey = SingleFlightGroup.createKey(request());
+        }
+        return mKey;
+    }
+}
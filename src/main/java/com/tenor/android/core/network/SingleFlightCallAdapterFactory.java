@@ -0,0 +1,79 @@
+package com.tenor.android.core.network;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import retrofit2.Call;
+import retrofit2.CallAdapter;
+import retrofit2.Retrofit;
+import retrofit2.http.GET;
+
+/**
+ * A {@link CallAdapter.Factory} that wraps the {@link Call}s of the read-only {@link GET} endpoints
+ * with {@link SingleFlightCall}, so identical concurrent requests, such as {@link IApiClient#search}
+ * issued by multiple fragments at the same time, share one network call
+ * <p>
+ * Endpoints with side effects, such as {@link IApiClient#registerShare}, are never coalesced, so
+ * every event is reported
+ */
+public class SingleFlightCallAdapterFactory extends CallAdapter.Factory {
+
+    /**
+     * The paths of the read-only endpoints, without their query
+     */
+    private static final Set<String> COALESCABLE_ENDPOINTS = Collections.unmodifiableSet(new HashSet<>(
+            Arrays.asList("search", "trending", "gifs", "tags", "autocomplete", "search_suggestions",
+                    "suggest", "user", "pack")));
+
+    private final SingleFlightGroup mGroup;
+
+    public SingleFlightCallAdapterFactory(@NonNull SingleFlightGroup group) {
+        mGroup = group;
+    }
+
+    @Nullable
+    @Override
+    public CallAdapter<?, ?> get(Type returnType, Annotation[] annotations, final Retrofit retrofit) {
+        if (getRawType(returnType) != Call.class || !isCoalescable(annotations)) {
+            return null;
+        }
+
+        //noinspection unchecked
+        final CallAdapter<Object, Call<Object>> delegate =
+                (CallAdapter<Object, Call<Object>>) retrofit.nextCallAdapter(this, returnType, annotations);
+
+        return new CallAdapter<Object, Call<Object>>() {
+            @Override
+            public Type responseType() {
+                return delegate.responseType();
+            }
+
+            @Override
+            public Call<Object> adapt(Call<Object> call) {
+                return new SingleFlightCall<>(delegate.adapt(call), mGroup, retrofit.callbackExecutor());
+            }
+        };
+    }
+
+    private static boolean isCoalescable(@Nullable Annotation[] annotations) {
+        if (annotations == null) {
+            return false;
+        }
+
+        for (Annotation annotation : annotations) {
+            if (annotation instanceof GET) {
+                final String value = ((GET) annotation).value();
+                final int query = value.indexOf('?');
+                return COALESCABLE_ENDPOINTS.contains(query < 0 ? value : value.substring(0, query));
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,326 @@
+package com.tenor.android.core.network;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Tracks the in-flight requests so that identical concurrent {@link SingleFlightCall}s share
+ * one network call and one parsed response, which is then fanned out to every {@link Callback}
+ * <p>
+ * The {@link Callback}s of enqueued calls are always called on the callback executor of their
+ * {@link SingleFlightCall}, even when the flight is led by a blocking {@link #execute} call
+ */
+public class SingleFlightGroup {
+
+    private final Map<String, Flight<?>> mFlights = new HashMap<>();
+    private int mCoalescedCount;
+
+    /**
+     * @return number of calls that have been served by joining an identical in-flight call
+     */
+    public synchronized int getCoalescedCount() {
+        return mCoalescedCount;
+    }
+
+    /**
+     * @return number of distinct calls currently in flight
+     */
+    public synchronized int getInFlightCount() {
+        return mFlights.size();
+    }
+
+    /**
+     * Join the identical in-flight call, or start a new one using the {@code call}'s own delegate
+     */
+    <T> void join(@NonNull final String key,
+                  @NonNull final SingleFlightCall<T> call,
+                  @NonNull final Call<T> delegate,
+                  @NonNull final Callback<T> callback) {
+
+        final Flight<T> flight;
+        synchronized (this) {
+            //noinspection unchecked
+            final Flight<T> existing = (Flight<T>) mFlights.get(key);
+            if (existing != null) {
+                existing.subscribe(call, callback);
+                mCoalescedCount++;
+                return;
+            }
+
+            flight = new Flight<>(delegate);
+            flight.subscribe(call, callback);
+            mFlights.put(key, flight);
+        }
+
+        delegate.enqueue(new Callback<T>() {
+            @Override
+            public void onResponse(Call<T> c, Response<T> response) {
+                // already on the callback executor of the delegate
+                complete(key, flight).dispatchResponse(response, true);
+            }
+
+            @Override
+            public void onFailure(Call<T> c, Throwable throwable) {
+                complete(key, flight).dispatchFailure(throwable, true);
+            }
+        });
+    }
+
+    /**
+     * Join the identical in-flight call and block until it completes, or execute the {@code call}'s
+     * own delegate on the calling thread and let later identical calls join it
+     */
+    @NonNull
+    <T> Response<T> execute(@NonNull final String key,
+                            @NonNull final SingleFlightCall<T> call,
+                            @NonNull final Call<T> delegate) throws IOException {
+
+        final BlockingCallback<T> callback = new BlockingCallback<>();
+        final Flight<T> flight;
+        boolean joined = false;
+        synchronized (this) {
+            //noinspection unchecked
+            final Flight<T> existing = (Flight<T>) mFlights.get(key);
+            if (existing != null) {
+                existing.subscribe(call, callback);
+                mCoalescedCount++;
+                flight = null;
+                joined = true;
+            } else {
+                flight = new Flight<>(delegate);
+                flight.subscribe(call, callback);
+                mFlights.put(key, flight);
+            }
+        }
+
+        if (joined) {
+            return callback.await();
+        }
+
+        // the leader subscribes like any other call, so it gets its own copy of an error body
+        Response<T> response = null;
+        Throwable throwable = null;
+        try {
+            response = delegate.execute();
+        } catch (Throwable t) {
+            throwable = t;
+        }
+
+        // on the calling thread, so the enqueued subscribers are called through their callback executor
+        if (response != null) {
+            complete(key, flight).dispatchResponse(response, false);
+        } else {
+            complete(key, flight).dispatchFailure(throwable, false);
+        }
+        return callback.await();
+    }
+
+    /**
+     * Leave the in-flight call, the shared network call will only be canceled once all of its
+     * subscribers have left
+     *
+     * @return the {@link Callback} of the leaving call, or {@code null} if it was not subscribed
+     */
+    @Nullable
+    <T> Callback<T> leave(@NonNull String key, @NonNull SingleFlightCall<T> call) {
+        final Flight<T> flight;
+        final Callback<T> callback;
+        synchronized (this) {
+            //noinspection unchecked
+            flight = (Flight<T>) mFlights.get(key);
+            if (flight == null) {
+                return null;
+            }
+
+            callback = flight.unsubscribe(call);
+            if (!flight.calls.isEmpty()) {
+                return callback;
+            }
+            mFlights.remove(key);
+        }
+        flight.delegate.cancel();
+        return callback;
+    }
+
+    @NonNull
+    private synchronized <T> Flight<T> complete(@NonNull String key, @NonNull Flight<T> flight) {
+        if (mFlights.get(key) == flight) {
+            mFlights.remove(key);
+        }
+        return flight;
+    }
+
+    /**
+     * Build a key that identifies identical requests
+     */
+    @NonNull
+    static String createKey(@NonNull Request request) {
+        return request.method() + ' ' + request.url();
+    }
+
+    private static class Flight<T> {
+        private final Call<T> delegate;
+        private final List<SingleFlightCall<T>> calls = new ArrayList<>(2);
+        private final List<Callback<T>> callbacks = new ArrayList<>(2);
+
+        private Flight(@NonNull Call<T> delegate) {
+            this.delegate = delegate;
+        }
+
+        private void subscribe(@NonNull SingleFlightCall<T> call, @NonNull Callback<T> callback) {
+            calls.add(call);
+            callbacks.add(callback);
+        }
+
+        @Nullable
+        private Callback<T> unsubscribe(@NonNull SingleFlightCall<T> call) {
+            final int index = calls.indexOf(call);
+            if (index < 0) {
+                return null;
+            }
+            calls.remove(index);
+            return callbacks.remove(index);
+        }
+
+        /**
+         * @param onCallbackThread true if called on the callback executor of the subscribers
+         */
+        private void dispatchResponse(@NonNull Response<T> response, boolean onCallbackThread) {
+            /*
+             * the flight has already been removed from the group, so no more subscriber can
+             * join or leave from this point on
+             */
+            final List<SingleFlightCall<T>> cs = calls;
+            final List<Callback<T>> cbs = callbacks;
+
+            if (response.isSuccessful() || cbs.size() <= 1) {
+                for (int i = 0; i < cbs.size(); i++) {
+                    deliverResponse(cs.get(i), cbs.get(i), response, onCallbackThread);
+                }
+                return;
+            }
+
+            // an error body can only be consumed once, so buffer it and hand each callback its own copy
+            final ResponseBody errorBody = response.errorBody();
+            MediaType contentType = null;
+            byte[] bytes = new byte[0];
+            if (errorBody != null) {
+                contentType = errorBody.contentType();
+                try {
+                    bytes = errorBody.bytes();
+                } catch (IOException ignored) {
+                }
+            }
+
+            for (int i = 0; i < cbs.size(); i++) {
+                deliverResponse(cs.get(i), cbs.get(i),
+                        Response.<T>error(ResponseBody.create(contentType, bytes), response.raw()), onCallbackThread);
+            }
+        }
+
+        /**
+         * @param onCallbackThread true if called on the callback executor of the subscribers
+         */
+        private void dispatchFailure(@Nullable Throwable throwable, boolean onCallbackThread) {
+            final List<SingleFlightCall<T>> cs = calls;
+            final List<Callback<T>> cbs = callbacks;
+
+            for (int i = 0; i < cbs.size(); i++) {
+                deliverFailure(cs.get(i), cbs.get(i), throwable, onCallbackThread);
+            }
+        }
+
+        private static <T> void deliverResponse(@NonNull final SingleFlightCall<T> call,
+                                                @NonNull final Callback<T> callback,
+                                                @NonNull final Response<T> response,
+                                                boolean onCallbackThread) {
+            // a blocked execute() holds no state of the caller, wake it up right away
+            if (onCallbackThread || callback instanceof BlockingCallback) {
+                callback.onResponse(call, response);
+                return;
+            }
+            call.getCallbackExecutor().execute(new Runnable() {
+                @Override
+                public void run() {
+                    callback.onResponse(call, response);
+                }
+            });
+        }
+
+        private static <T> void deliverFailure(@NonNull final SingleFlightCall<T> call,
+                                               @NonNull final Callback<T> callback,
+                                               @Nullable final Throwable throwable,
+                                               boolean onCallbackThread) {
+            if (onCallbackThread || callback instanceof BlockingCallback) {
+                callback.onFailure(call, throwable);
+                return;
+            }
+            call.getCallbackExecutor().execute(new Runnable() {
+                @Override
+                public void run() {
+                    callback.onFailure(call, throwable);
+                }
+            });
+        }
+    }
+
+    /**
+     * Hands the result of a flight to a thread blocked in {@link #execute}
+     */
+    static class BlockingCallback<T> implements Callback<T> {
+
+        private final CountDownLatch mLatch = new CountDownLatch(1);
+        private volatile Response<T> mResponse;
+        private volatile Throwable mThrowable;
+
+        @Override
+        public void onResponse(Call<T> call, Response<T> response) {
+            mResponse = response;
+            mLatch.countDown();
+        }
+
+        @Override
+        public void onFailure(Call<T> call, Throwable throwable) {
+            mThrowable = throwable;
+            mLatch.countDown();
+        }
+
+        @NonNull
+        private Response<T> await() throws IOException {
+            try {
+                mLatch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted", e);
+            }
+
+            if (mResponse != null) {
+                return mResponse;
+            }
+            if (mThrowable instanceof IOException) {
+                throw (IOException) mThrowable;
+            }
+            if (mThrowable instanceof RuntimeException) {
+                throw (RuntimeException) mThrowable;
+            }
+            if (mThrowable instanceof Error) {
+                throw (Error) mThrowable;
+            }
+            throw new IOException(mThrowable);
+        }
+    }
+}
@@ -13,7 +13,7 @@ import java.io.Serializable;
 public abstract class AbstractResponse implements Serializable {
 
     private static final long serialVersionUID = 2769940807942589161L;
-    private String error;
+    String error;
 
     @NonNull
     public String getError() {
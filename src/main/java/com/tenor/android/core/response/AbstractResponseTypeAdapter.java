@@ -0,0 +1,53 @@
+package com.tenor.android.core.response;
+
+import android.support.annotation.NonNull;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.tenor.android.core.util.AbstractJsonUtils;
+
+import java.io.IOException;
+
+/**
+ * Base hand-written {@link TypeAdapter} of an {@link AbstractResponse}, which handles the
+ * {@code error} field and skips the unknown fields
+ *
+ * @param <T> the type of response
+ */
+public abstract class AbstractResponseTypeAdapter<T extends AbstractResponse> extends TypeAdapter<T> {
+
+    @Override
+    public T read(JsonReader in) throws IOException {
+        final T value = newInstance();
+        in.beginObject();
+        while (in.hasNext()) {
+            final String name = in.nextName();
+            if ("error".equals(name)) {
+                value.error = AbstractJsonUtils.nextString(in);
+            } else if (!readField(value, name, in)) {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        return value;
+    }
+
+    @Override
+    public void write(JsonWriter out, T value) throws IOException {
+        out.beginObject();
+        AbstractJsonUtils.write(out, "error", value.error);
+        writeFields(out, value);
+        out.endObject();
+    }
+
+    @NonNull
+    protected abstract T newInstance();
+
+    /**
+     * @return false if the field is unknown and has not been consumed
+     */
+    protected abstract boolean readField(@NonNull T value, @NonNull String name, @NonNull JsonReader in) throws IOException;
+
+    protected abstract void writeFields(@NonNull JsonWriter out, @NonNull T value) throws IOException;
+}
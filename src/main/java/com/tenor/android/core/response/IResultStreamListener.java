@@ -0,0 +1,20 @@
+package com.tenor.android.core.response;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.WorkerThread;
+
+import com.tenor.android.core.model.impl.Result;
+
+/**
+ * Callback for each {@link Result} as soon as it is parsed out of a response that is still downloading
+ */
+public interface IResultStreamListener {
+
+    /**
+     * Called on the thread that reads the response body
+     *
+     * @param result the {@link Result} that has just been parsed
+     */
+    @WorkerThread
+    void onResultParsed(@NonNull Result result);
+}
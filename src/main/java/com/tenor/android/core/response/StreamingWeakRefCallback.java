@@ -0,0 +1,89 @@
+package com.tenor.android.core.response;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.tenor.android.core.model.impl.Result;
+import com.tenor.android.core.network.ApiClient;
+import com.tenor.android.core.response.impl.GifsResponse;
+import com.tenor.android.core.weakref.WeakRefRunnable;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import retrofit2.Call;
+import retrofit2.Response;
+
+/**
+ * A {@link WeakRefCallback} that receives each {@link Result} of a {@link GifsResponse} as soon as
+ * it has been parsed, so adapters can bind the first rows before the body finishes downloading
+ * <p>
+ * Enqueue the call with {@link ApiClient#enqueue(Call, StreamingWeakRefCallback)}; a response
+ * that has not been streamed, such as one served from cache, has all its results delivered through
+ * {@link #onResultStreamed(Object, Result, int)} right before {@link #success(Object, Object)}
+ * <p>
+ * A callback can be reused for successive calls, but not for concurrent ones
+ *
+ * @param <CTX> the type of caller
+ * @param <T>   the type of response
+ */
+public abstract class StreamingWeakRefCallback<CTX, T extends GifsResponse> extends WeakRefCallback<CTX, T>
+        implements IResultStreamListener {
+
+    private final AtomicInteger mStreamedCount = new AtomicInteger();
+
+    public StreamingWeakRefCallback(@NonNull CTX ctx) {
+        super(ctx);
+    }
+
+    public StreamingWeakRefCallback(@NonNull WeakReference<CTX> weakRef) {
+        super(weakRef);
+    }
+
+    /**
+     * Restart the positions from 0, called by {@link ApiClient#enqueue(Call, StreamingWeakRefCallback)}
+     * before each call
+     */
+    public void resetStream() {
+        mStreamedCount.set(0);
+    }
+
+    @Override
+    public final void onResultParsed(@NonNull Result result) {
+        postResult(result, mStreamedCount.getAndIncrement());
+    }
+
+    @Override
+    public void onResponse(Call<T> call, @Nullable Response<T> response) {
+        if (response != null && response.isSuccessful() && response.body() != null) {
+            final List<Result> results = response.body().getResults();
+            for (int i = mStreamedCount.get(); i < results.size(); i++) {
+                postResult(results.get(i), mStreamedCount.getAndIncrement());
+            }
+        }
+        super.onResponse(call, response);
+    }
+
+    private void postResult(@NonNull final Result result, final int position) {
+        if (!hasRef()) {
+            return;
+        }
+
+        getUiThread().post(new WeakRefRunnable<CTX>(getWeakRef()) {
+            @Override
+            public void run(@NonNull CTX ctx) {
+                onResultStreamed(ctx, result, position);
+            }
+        });
+    }
+
+    /**
+     * Called on the UI thread for each {@link Result} in the order they appear in the response
+     *
+     * @param ctx      the caller
+     * @param result   the {@link Result}
+     * @param position the position of the {@link Result} in the response
+     */
+    public abstract void onResultStreamed(@NonNull CTX ctx, @NonNull Result result, int position);
+}
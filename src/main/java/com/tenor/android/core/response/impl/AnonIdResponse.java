@@ -13,9 +13,9 @@ public class AnonIdResponse extends AbstractResponse {
 
     private static final long serialVersionUID = -1814022099833831972L;
     @SerializedName(value = "anonid", alternate = {"anon_id"})
-    private String id;
+    String id;
     @SerializedName("localid")
-    private int localId;
+    int localId;
 
     @NonNull
     public String getId() {
@@ -14,7 +14,7 @@ import java.util.List;
  */
 public class EmojiResponse extends AbstractResponse {
     private static final long serialVersionUID = 5979803531976871364L;
-    private List<EmojiTag> tags;
+    List<EmojiTag> tags;
 
     @NonNull
     public List<EmojiTag> getTags() {
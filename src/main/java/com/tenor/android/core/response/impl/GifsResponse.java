@@ -16,8 +16,8 @@ import java.util.List;
  */
 public class GifsResponse extends AbstractResponse {
     private static final long serialVersionUID = 2805215887381282883L;
-    private String next;
-    private List<Result> results;
+    String next;
+    List<Result> results;
 
     public boolean hasNext() {
         return !TextUtils.isEmpty(next);
@@ -8,8 +8,8 @@ public class PackResponse extends GifsResponse {
 
     private static final long serialVersionUID = -6425188470381821462L;
 
-    private String id;
-    private String name;
+    String id;
+    String name;
 
     @NonNull
     public String getId() {
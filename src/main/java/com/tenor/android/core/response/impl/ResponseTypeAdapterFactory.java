@@ -0,0 +1,280 @@
+package com.tenor.android.core.response.impl;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.tenor.android.core.model.impl.EmojiTag;
+import com.tenor.android.core.model.impl.Result;
+import com.tenor.android.core.model.impl.Tag;
+import com.tenor.android.core.response.AbstractResponseTypeAdapter;
+import com.tenor.android.core.util.AbstractJsonUtils;
+
+import java.io.IOException;
+
+/**
+ * A {@link TypeAdapterFactory} of hand-written {@link TypeAdapter}s for the responses of this package,
+ * which read and write the same JSON as the reflective Gson adapters, without the reflection
+ * <p>
+ * Only the exact response classes are handled, a subclass falls back to the reflective adapter
+ */
+public class ResponseTypeAdapterFactory implements TypeAdapterFactory {
+
+    @Nullable
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        final Class<? super T> raw = type.getRawType();
+
+        final TypeAdapter<?> adapter;
+        if (raw == GifsResponse.class) {
+            adapter = new GifsResponseTypeAdapter(gson);
+        } else if (raw == TrendingGifResponse.class) {
+            adapter = new TrendingGifResponseTypeAdapter(gson);
+        } else if (raw == PackResponse.class) {
+            adapter = new PackResponseTypeAdapter(gson);
+        } else if (raw == TagsResponse.class) {
+            adapter = new TagsResponseTypeAdapter(gson);
+        } else if (raw == EmojiResponse.class) {
+            adapter = new EmojiResponseTypeAdapter(gson);
+        } else if (raw == AnonIdResponse.class) {
+            adapter = new AnonIdResponseTypeAdapter();
+        } else if (raw == SearchSuggestionResponse.class) {
+            adapter = new SearchSuggestionResponseTypeAdapter();
+        } else if (raw == TrendingTermResponse.class) {
+            adapter = new TrendingTermResponseTypeAdapter();
+        } else {
+            return null;
+        }
+        return (TypeAdapter<T>) adapter.nullSafe();
+    }
+
+    private static abstract class AbstractGifsResponseTypeAdapter<T extends GifsResponse> extends AbstractResponseTypeAdapter<T> {
+
+        private final TypeAdapter<Result> mResultAdapter;
+
+        AbstractGifsResponseTypeAdapter(@NonNull Gson gson) {
+            // goes through the Gson instance, so any Result adapter registered after this factory still applies
+            mResultAdapter = gson.getAdapter(Result.class);
+        }
+
+        @Override
+        protected boolean readField(@NonNull T value, @NonNull String name, @NonNull JsonReader in) throws IOException {
+            switch (name) {
+                case "next":
+                    value.next = AbstractJsonUtils.nextString(in);
+                    return true;
+                case "results":
+                    value.results = AbstractJsonUtils.nextList(in, mResultAdapter);
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        @Override
+        protected void writeFields(@NonNull JsonWriter out, @NonNull T value) throws IOException {
+            AbstractJsonUtils.write(out, "next", value.next);
+            AbstractJsonUtils.writeList(out, "results", value.results, mResultAdapter);
+        }
+    }
+
+    private static class GifsResponseTypeAdapter extends AbstractGifsResponseTypeAdapter<GifsResponse> {
+
+        GifsResponseTypeAdapter(@NonNull Gson gson) {
+            super(gson);
+        }
+
+        @NonNull
+        @Override
+        protected GifsResponse newInstance() {
+            return new GifsResponse();
+        }
+    }
+
+    private static class TrendingGifResponseTypeAdapter extends AbstractGifsResponseTypeAdapter<TrendingGifResponse> {
+
+        TrendingGifResponseTypeAdapter(@NonNull Gson gson) {
+            super(gson);
+        }
+
+        @NonNull
+        @Override
+        protected TrendingGifResponse newInstance() {
+            return new TrendingGifResponse();
+        }
+    }
+
+    private static class PackResponseTypeAdapter extends AbstractGifsResponseTypeAdapter<PackResponse> {
+
+        PackResponseTypeAdapter(@NonNull Gson gson) {
+            super(gson);
+        }
+
+        @NonNull
+        @Override
+        protected PackResponse newInstance() {
+            return new PackResponse();
+        }
+
+        @Override
+        protected boolean readField(@NonNull PackResponse value, @NonNull String name, @NonNull JsonReader in) throws IOException {
+            switch (name) {
+                case "id":
+                    value.id = AbstractJsonUtils.nextString(in);
+                    return true;
+                case "name":
+                    value.name = AbstractJsonUtils.nextString(in);
+                    return true;
+                default:
+                    return super.readField(value, name, in);
+            }
+        }
+
+        @Override
+        protected void writeFields(@NonNull JsonWriter out, @NonNull PackResponse value) throws IOException {
+            super.writeFields(out, value);
+            AbstractJsonUtils.write(out, "id", value.id);
+            AbstractJsonUtils.write(out, "name", value.name);
+        }
+    }
+
+    private static class TagsResponseTypeAdapter extends AbstractResponseTypeAdapter<TagsResponse> {
+
+        private final TypeAdapter<Tag> mTagAdapter;
+
+        TagsResponseTypeAdapter(@NonNull Gson gson) {
+            mTagAdapter = gson.getAdapter(Tag.class);
+        }
+
+        @NonNull
+        @Override
+        protected TagsResponse newInstance() {
+            return new TagsResponse();
+        }
+
+        @Override
+        protected boolean readField(@NonNull TagsResponse value, @NonNull String name, @NonNull JsonReader in) throws IOException {
+            if (!"tags".equals(name)) {
+                return false;
+            }
+            value.tags = AbstractJsonUtils.nextList(in, mTagAdapter);
+            return true;
+        }
+
+        @Override
+        protected void writeFields(@NonNull JsonWriter out, @NonNull TagsResponse value) throws IOException {
+            AbstractJsonUtils.writeList(out, "tags", value.tags, mTagAdapter);
+        }
+    }
+
+    private static class EmojiResponseTypeAdapter extends AbstractResponseTypeAdapter<EmojiResponse> {
+
+        private final TypeAdapter<EmojiTag> mEmojiTagAdapter;
+
+        EmojiResponseTypeAdapter(@NonNull Gson gson) {
+            mEmojiTagAdapter = gson.getAdapter(EmojiTag.class);
+        }
+
+        @NonNull
+        @Override
+        protected EmojiResponse newInstance() {
+            return new EmojiResponse();
+        }
+
+        @Override
+        protected boolean readField(@NonNull EmojiResponse value, @NonNull String name, @NonNull JsonReader in) throws IOException {
+            if (!"tags".equals(name)) {
+                return false;
+            }
+            value.tags = AbstractJsonUtils.nextList(in, mEmojiTagAdapter);
+            return true;
+        }
+
+        @Override
+        protected void writeFields(@NonNull JsonWriter out, @NonNull EmojiResponse value) throws IOException {
+            AbstractJsonUtils.writeList(out, "tags", value.tags, mEmojiTagAdapter);
+        }
+    }
+
+    private static class AnonIdResponseTypeAdapter extends AbstractResponseTypeAdapter<AnonIdResponse> {
+
+        @NonNull
+        @Override
+        protected AnonIdResponse newInstance() {
+            return new AnonIdResponse();
+        }
+
+        @Override
+        protected boolean readField(@NonNull AnonIdResponse value, @NonNull String name, @NonNull JsonReader in) throws IOException {
+            switch (name) {
+                case "anonid":
+                case "anon_id":
+                    value.id = AbstractJsonUtils.nextString(in);
+                    return true;
+                case "localid":
+                    value.localId = AbstractJsonUtils.nextInt(in, 0);
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        @Override
+        protected void writeFields(@NonNull JsonWriter out, @NonNull AnonIdResponse value) throws IOException {
+            AbstractJsonUtils.write(out, "anonid", value.id);
+            out.name("localid").value(value.localId);
+        }
+    }
+
+    private static class SearchSuggestionResponseTypeAdapter extends AbstractResponseTypeAdapter<SearchSuggestionResponse> {
+
+        @NonNull
+        @Override
+        protected SearchSuggestionResponse newInstance() {
+            return new SearchSuggestionResponse();
+        }
+
+        @Override
+        protected boolean readField(@NonNull SearchSuggestionResponse value, @NonNull String name, @NonNull JsonReader in) throws IOException {
+            if (!"results".equals(name)) {
+                return false;
+            }
+            value.results = AbstractJsonUtils.nextStringList(in);
+            return true;
+        }
+
+        @Override
+        protected void writeFields(@NonNull JsonWriter out, @NonNull SearchSuggestionResponse value) throws IOException {
+            AbstractJsonUtils.writeStringList(out, "results", value.results);
+        }
+    }
+
+    private static class TrendingTermResponseTypeAdapter extends AbstractResponseTypeAdapter<TrendingTermResponse> {
+
+        @NonNull
+        @Override
+        protected TrendingTermResponse newInstance() {
+            return new TrendingTermResponse();
+        }
+
+        @Override
+        protected boolean readField(@NonNull TrendingTermResponse value, @NonNull String name, @NonNull JsonReader in) throws IOException {
+            if (!"results".equals(name)) {
+                return false;
+            }
+            value.results = AbstractJsonUtils.nextStringList(in);
+            return true;
+        }
+
+        @Override
+        protected void writeFields(@NonNull JsonWriter out, @NonNull TrendingTermResponse value) throws IOException {
+            AbstractJsonUtils.writeStringList(out, "results", value.results);
+        }
+    }
+}
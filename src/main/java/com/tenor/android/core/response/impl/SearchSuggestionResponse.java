@@ -14,7 +14,7 @@ import java.util.List;
 public class SearchSuggestionResponse extends AbstractResponse {
 
     private static final long serialVersionUID = 8046525237691607393L;
-    private List<String> results;
+    List<String> results;
 
     @NonNull
     public List<String> getResults() {
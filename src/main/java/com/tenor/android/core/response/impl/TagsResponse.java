@@ -15,7 +15,7 @@ import java.util.List;
 public class TagsResponse extends AbstractResponse {
 
     private static final long serialVersionUID = -8215681889738059793L;
-    private List<Tag> tags;
+    List<Tag> tags;
 
     @NonNull
     public List<Tag> getTags() {
@@ -14,7 +14,7 @@ import java.util.List;
 public class TrendingTermResponse extends AbstractResponse {
 
     private static final long serialVersionUID = -8215681889738059793L;
-    private List<String> results;
+    List<String> results;
 
     @NonNull
     public List<String> getTrendingTerms() {
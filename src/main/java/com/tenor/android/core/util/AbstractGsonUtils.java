@@ -1,7 +1,16 @@
 package com.tenor.android.core.util;
 
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.tenor.android.core.constant.MediaCollectionFormat;
+import com.tenor.android.core.model.impl.ModelTypeAdapterFactory;
+import com.tenor.android.core.network.ResultStreamTypeAdapterFactory;
+import com.tenor.android.core.response.impl.ResponseTypeAdapterFactory;
+
+import java.util.Collection;
 
 /**
  * The Gson utility class
@@ -12,8 +21,24 @@ public abstract class AbstractGsonUtils {
 
     public static Gson getInstance() {
         if (sGson == null) {
-            sGson = new GsonBuilder().create();
+            sGson = create(null);
         }
         return sGson;
     }
+
+    /**
+     * Create a new {@link Gson} that only decodes the given {@link MediaCollectionFormat}s of each
+     * {@link com.tenor.android.core.model.impl.MediaCollection}
+     *
+     * @param mediaFormats the {@link MediaCollectionFormat}s to decode, {@code null} for all of them
+     */
+    @NonNull
+    public static Gson create(@Nullable Collection<String> mediaFormats) {
+        return new GsonBuilder()
+                .registerTypeAdapterFactory(new ModelTypeAdapterFactory(mediaFormats))
+                .registerTypeAdapterFactory(new ResponseTypeAdapterFactory())
+                // last, so it wraps the hand-written Result adapter
+                .registerTypeAdapterFactory(new ResultStreamTypeAdapterFactory())
+                .create();
+    }
 }
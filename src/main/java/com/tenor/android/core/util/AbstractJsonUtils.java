@@ -0,0 +1,195 @@
+package com.tenor.android.core.util;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Helper methods for the hand-written {@link TypeAdapter}s
+ * <p>
+ * The readers are as lenient as the reflective Gson adapters they replace, such as accepting
+ * a quoted number or a boolean for a {@link String} field, so the wire format stays the same
+ */
+public abstract class AbstractJsonUtils {
+
+    /**
+     * @return true if the next token is {@link JsonToken#NULL}, and consume it
+     */
+    public static boolean nextNull(@NonNull JsonReader in) throws IOException {
+        if (in.peek() != JsonToken.NULL) {
+            return false;
+        }
+        in.nextNull();
+        return true;
+    }
+
+    @Nullable
+    public static String nextString(@NonNull JsonReader in) throws IOException {
+        final JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        if (token == JsonToken.BOOLEAN) {
+            return Boolean.toString(in.nextBoolean());
+        }
+        return in.nextString();
+    }
+
+    public static int nextInt(@NonNull JsonReader in, int defVal) throws IOException {
+        return nextNull(in) ? defVal : in.nextInt();
+    }
+
+    public static long nextLong(@NonNull JsonReader in, long defVal) throws IOException {
+        return nextNull(in) ? defVal : in.nextLong();
+    }
+
+    public static double nextDouble(@NonNull JsonReader in, double defVal) throws IOException {
+        return nextNull(in) ? defVal : in.nextDouble();
+    }
+
+    public static boolean nextBoolean(@NonNull JsonReader in, boolean defVal) throws IOException {
+        final JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return defVal;
+        }
+
+        if (token == JsonToken.STRING) {
+            return Boolean.parseBoolean(in.nextString());
+        }
+        return in.nextBoolean();
+    }
+
+    @Nullable
+    public static int[] nextIntArray(@NonNull JsonReader in) throws IOException {
+        if (nextNull(in)) {
+            return null;
+        }
+
+        int[] array = new int[2];
+        int size = 0;
+        in.beginArray();
+        while (in.hasNext()) {
+            if (size == array.length) {
+                final int[] grown = new int[size * 2];
+                System.arraycopy(array, 0, grown, 0, size);
+                array = grown;
+            }
+            array[size++] = in.nextInt();
+        }
+        in.endArray();
+
+        if (size == array.length) {
+            return array;
+        }
+        final int[] trimmed = new int[size];
+        System.arraycopy(array, 0, trimmed, 0, size);
+        return trimmed;
+    }
+
+    @Nullable
+    public static List<String> nextStringList(@NonNull JsonReader in) throws IOException {
+        if (nextNull(in)) {
+            return null;
+        }
+
+        final List<String> list = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            list.add(nextString(in));
+        }
+        in.endArray();
+        return list;
+    }
+
+    @Nullable
+    public static <T> List<T> nextList(@NonNull JsonReader in, @NonNull TypeAdapter<T> adapter) throws IOException {
+        if (nextNull(in)) {
+            return null;
+        }
+
+        final List<T> list = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            list.add(adapter.read(in));
+        }
+        in.endArray();
+        return list;
+    }
+
+    /**
+     * Write a name/value pair, skip if the value is {@code null}
+     */
+    public static void write(@NonNull JsonWriter out, @NonNull String name, @Nullable String value) throws IOException {
+        if (value != null) {
+            out.name(name).value(value);
+        }
+    }
+
+    /**
+     * Write a name/value pair, skip if the value is {@code null}
+     */
+    public static <T> void write(@NonNull JsonWriter out, @NonNull String name, @Nullable T value,
+                                 @NonNull TypeAdapter<T> adapter) throws IOException {
+        if (value != null) {
+            out.name(name);
+            adapter.write(out, value);
+        }
+    }
+
+    /**
+     * Write a name/value pair, skip if the value is {@code null}
+     */
+    public static void write(@NonNull JsonWriter out, @NonNull String name, @Nullable int[] values) throws IOException {
+        if (values == null) {
+            return;
+        }
+
+        out.name(name).beginArray();
+        for (int value : values) {
+            out.value(value);
+        }
+        out.endArray();
+    }
+
+    /**
+     * Write a name/value pair, skip if the value is {@code null}
+     */
+    public static void writeStringList(@NonNull JsonWriter out, @NonNull String name, @Nullable List<String> values) throws IOException {
+        if (values == null) {
+            return;
+        }
+
+        out.name(name).beginArray();
+        for (String value : values) {
+            out.value(value);
+        }
+        out.endArray();
+    }
+
+    /**
+     * Write a name/value pair, skip if the value is {@code null}
+     */
+    public static <T> void writeList(@NonNull JsonWriter out, @NonNull String name, @Nullable List<T> values,
+                                     @NonNull TypeAdapter<T> adapter) throws IOException {
+        if (values == null) {
+            return;
+        }
+
+        out.name(name).beginArray();
+        for (T value : values) {
+            adapter.write(out, value);
+        }
+        out.endArray();
+    }
+}
@@ -21,6 +21,7 @@ import java.util.Enumeration;
 public abstract class AbstractNetworkUtils {
 
     private static int sBatchSize = -1;
+    private static volatile float sThroughput = -1f;
 
     /**
      * Get the batch size
@@ -93,6 +94,7 @@ public abstract class AbstractNetworkUtils {
      * @param speed network speed measured in KB/s
      */
     public static void updateBatchSize(float speed) {
+        sThroughput = speed;
         final int kbps = (int) (speed * 8);
         final int batchSize;
         if (kbps > 1000) {
@@ -105,6 +107,13 @@ public abstract class AbstractNetworkUtils {
         sBatchSize = batchSize;
     }
 
+    /**
+     * @return the last measured network speed in KB/s, or -1 if it has not been measured yet
+     */
+    public static float getThroughput() {
+        return sThroughput;
+    }
+
     /**
      * Gets the network info of the device
      *
@@ -27,6 +27,19 @@ public abstract class AbstractSessionUtils {
         return context.getSharedPreferences(DEVICE_PREF, Context.MODE_PRIVATE);
     }
 
+    /**
+     * Listen to the changes of the stored session ids, such as the anon id and the AAID
+     * <p>
+     * {@link SharedPreferences} only keeps a weak reference to the listener, so the caller must hold it
+     *
+     * @param context  the context
+     * @param listener the listener
+     */
+    public static void registerOnSessionChangeListener(@NonNull final Context context,
+                                                       @NonNull SharedPreferences.OnSharedPreferenceChangeListener listener) {
+        getPreferences(context).registerOnSharedPreferenceChangeListener(listener);
+    }
+
     protected static void remove(@NonNull final Context context, String... keys) {
         SharedPreferences.Editor edit = getPreferences(context).edit();
         for (String key : keys) {
@@ -0,0 +1,178 @@
+package com.tenor.android.core.widget;
+
+import android.app.Application;
+import android.content.Context;
+import android.support.annotation.FloatRange;
+import android.support.annotation.IntRange;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v7.widget.RecyclerView;
+import android.text.TextUtils;
+
+import com.tenor.android.core.constant.StringConstant;
+import com.tenor.android.core.network.ApiService;
+import com.tenor.android.core.network.IPageLoader;
+import com.tenor.android.core.response.impl.GifsResponse;
+import com.tenor.android.core.util.AbstractLayoutManagerUtils;
+import com.tenor.android.core.util.AbstractNetworkUtils;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * A {@link RecyclerView.OnScrollListener} that prefetches the next page, identified by
+ * {@link GifsResponse#getNext()}, once the scroll position passes a given fraction of the loaded list
+ * <p>
+ * The prefetched page is kept by the in-memory cache of {@link ApiService}, and a request for the
+ * same page issued while the prefetch is still in flight joins it, so the adapter should request
+ * its next page with the same {@code limit}, a.k.a {@link #getLimit()}, in order to benefit from it
+ * <p>
+ * The limit is fixed for the whole query, so a batch size changing in the meantime, such as after
+ * a new bandwidth estimation, does not make the prefetched page miss the cache
+ *
+ * @param <T> the type of the paged response
+ */
+public class PrefetchOnScrollListener<T extends GifsResponse> extends RecyclerView.OnScrollListener {
+
+    private final Context mContext;
+    private final IPageLoader<T> mLoader;
+    private final float mFraction;
+
+    @NonNull
+    private String mQuery = StringConstant.EMPTY;
+    @NonNull
+    private String mNext = StringConstant.EMPTY;
+    private int mLimit;
+    @Nullable
+    private String mPrefetchedPos;
+    @Nullable
+    private Call<T> mCall;
+
+    /**
+     * @param context  the context
+     * @param loader   the {@link IPageLoader}
+     * @param fraction the fraction of the loaded list that needs to be scrolled through before
+     *                 the next page is prefetched
+     */
+    public PrefetchOnScrollListener(@NonNull Context context,
+                                    @NonNull IPageLoader<T> loader,
+                                    @FloatRange(from = 0f, to = 1f) float fraction) {
+        mContext = context instanceof Application ? context : context.getApplicationContext();
+        mLoader = loader;
+        mFraction = Math.max(0f, Math.min(fraction, 1f));
+    }
+
+    /**
+     * @return the page size to use for both the prefetch and the regular page requests of the
+     * current query, {@link AbstractNetworkUtils#getBatchSize(Context)} at the time it started
+     * unless set by {@link #onPageLoaded(String, GifsResponse, int)}
+     */
+    @IntRange(from = 1)
+    public int getLimit() {
+        if (mLimit <= 0) {
+            mLimit = AbstractNetworkUtils.getBatchSize(mContext);
+        }
+        return mLimit;
+    }
+
+    /**
+     * Switch to a new query, which cancels the prefetch of the previous query
+     *
+     * @param query the new query, empty for trending
+     */
+    public void setQuery(@Nullable String query) {
+        final String q = StringConstant.getOrEmpty(query);
+        if (q.equals(mQuery)) {
+            return;
+        }
+        cancel();
+        mQuery = q;
+        mNext = StringConstant.EMPTY;
+        mLimit = 0;
+    }
+
+    /**
+     * Call when a page of the current query has been loaded into the adapter
+     *
+     * @param query    the query of the loaded page, empty for trending
+     * @param response the loaded page
+     */
+    public void onPageLoaded(@Nullable String query, @NonNull GifsResponse response) {
+        setQuery(query);
+        mNext = response.getNext();
+    }
+
+    /**
+     * Call when a page of the current query has been loaded into the adapter, the next page will
+     * be prefetched with the same limit
+     *
+     * @param query    the query of the loaded page, empty for trending
+     * @param response the loaded page
+     * @param limit    the limit the page has been requested with
+     */
+    public void onPageLoaded(@Nullable String query, @NonNull GifsResponse response, @IntRange(from = 1) int limit) {
+        onPageLoaded(query, response);
+        if (limit > 0) {
+            mLimit = limit;
+        }
+    }
+
+    /**
+     * Cancel the in-flight prefetch, if any
+     */
+    public void cancel() {
+        if (mCall != null) {
+            mCall.cancel();
+            mCall = null;
+        }
+        mPrefetchedPos = null;
+    }
+
+    @Override
+    public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+        super.onScrolled(recyclerView, dx, dy);
+
+        if (TextUtils.isEmpty(mNext) || mNext.equals(mPrefetchedPos)) {
+            return;
+        }
+
+        final RecyclerView.Adapter adapter = recyclerView.getAdapter();
+        final int count = adapter != null ? adapter.getItemCount() : 0;
+        if (count <= 0) {
+            return;
+        }
+
+        final int[] range = AbstractLayoutManagerUtils.getVisibleRange(recyclerView);
+        if (range[1] == RecyclerView.NO_POSITION || range[1] + 1 < mFraction * count) {
+            return;
+        }
+        prefetch();
+    }
+
+    private void prefetch() {
+        final String pos = mNext;
+        mPrefetchedPos = pos;
+        mCall = mLoader.load(mQuery, pos, getLimit());
+        mCall.enqueue(new Callback<T>() {
+            @Override
+            public void onResponse(Call<T> call, Response<T> response) {
+                if (call == mCall) {
+                    mCall = null;
+                }
+            }
+
+            @Override
+            public void onFailure(Call<T> call, Throwable throwable) {
+                if (call != mCall) {
+                    return;
+                }
+                mCall = null;
+                // allow the same page to be prefetched again on the next scroll
+                if (pos.equals(mPrefetchedPos)) {
+                    mPrefetchedPos = null;
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,167 @@
+package com.tenor.android.core.widget;
+
+import android.support.annotation.IntRange;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v7.widget.RecyclerView;
+import android.util.SparseArray;
+import android.util.SparseIntArray;
+import android.view.View;
+
+import com.tenor.android.core.measurable.IMeasurableViewHolder;
+import com.tenor.android.core.widget.adapter.AbstractRVAdapter;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * A {@link RecyclerView.RecycledViewPool} shared by several {@link RecyclerView}s, such as the
+ * trending, search and pack grids of a keyboard, so switching between them reuses the view holders
+ * of the previous one instead of inflating new ones
+ * <p>
+ * View holders are keyed by view type only, so the {@link AbstractRVAdapter}s sharing a pool must
+ * use the same view type for the same view holder class, and different view types otherwise; a
+ * view type recycled with two different view holder classes fails fast
+ * <p>
+ * The capacity of each view type grows with the largest number of its view holders attached to a
+ * single {@link RecyclerView}, which is what a switch needs to be served without inflation
+ * <p>
+ * A {@link IMeasurableViewHolder} entering the pool has its measurer detached, and gets a clean one
+ * on {@link IMeasurableViewHolder#attachMeasurer(RecyclerView)} from the {@link RecyclerView} it is
+ * reused by, so no measured data leaks from one {@link RecyclerView} to another
+ */
+@MainThread
+public class SharedRecycledViewPool extends RecyclerView.RecycledViewPool {
+
+    /**
+     * Same as the default capacity of {@link RecyclerView.RecycledViewPool}
+     */
+    private static final int DEFAULT_MAX_RECYCLED_VIEWS = 5;
+
+    private static final int MAX_RECYCLED_VIEWS = 50;
+
+    private final SparseIntArray mMaxRecycledViews = new SparseIntArray();
+    private final SparseArray<Class<?>> mViewHolderClasses = new SparseArray<>();
+    private final Map<RecyclerView, AttachedCounter> mCounters = new WeakHashMap<>();
+
+    /**
+     * Share this pool with the given {@link RecyclerView}, call it before setting its adapter
+     *
+     * @param recyclerView the {@link RecyclerView}
+     */
+    public void attach(@NonNull RecyclerView recyclerView) {
+        if (mCounters.containsKey(recyclerView)) {
+            return;
+        }
+
+        final AttachedCounter counter = new AttachedCounter();
+        mCounters.put(recyclerView, counter);
+        recyclerView.addOnChildAttachStateChangeListener(counter);
+        recyclerView.setRecycledViewPool(this);
+    }
+
+    /**
+     * Stop sharing this pool with the given {@link RecyclerView}, which gets a pool of its own
+     *
+     * @param recyclerView the {@link RecyclerView}
+     */
+    public void detach(@NonNull RecyclerView recyclerView) {
+        final AttachedCounter counter = mCounters.remove(recyclerView);
+        if (counter == null) {
+            return;
+        }
+
+        recyclerView.removeOnChildAttachStateChangeListener(counter);
+        if (recyclerView.getRecycledViewPool() == this) {
+            recyclerView.setRecycledViewPool(null);
+        }
+    }
+
+    /**
+     * Set the capacity of the given view type, it still grows if more of its view holders are
+     * attached to a single {@link RecyclerView}
+     */
+    @Override
+    public void setMaxRecycledViews(int viewType, @IntRange(from = 0, to = MAX_RECYCLED_VIEWS) int max) {
+        mMaxRecycledViews.put(viewType, max);
+        super.setMaxRecycledViews(viewType, max);
+    }
+
+    @Override
+    public void putRecycledView(RecyclerView.ViewHolder scrap) {
+        final int viewType = scrap.getItemViewType();
+        final Class<?> cls = mViewHolderClasses.get(viewType);
+        if (cls == null) {
+            mViewHolderClasses.put(viewType, scrap.getClass());
+        } else if (cls != scrap.getClass()) {
+            throw new IllegalStateException("view type " + viewType + " is shared by "
+                    + cls.getName() + " and " + scrap.getClass().getName());
+        }
+
+        if (scrap instanceof IMeasurableViewHolder) {
+            final IMeasurableViewHolder holder = (IMeasurableViewHolder) scrap;
+            if (holder.isAttached()) {
+                holder.detachMeasurer();
+            }
+        }
+        super.putRecycledView(scrap);
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        mViewHolderClasses.clear();
+    }
+
+    private void onAttachedCountChanged(int viewType, int count) {
+        final int max = mMaxRecycledViews.get(viewType, DEFAULT_MAX_RECYCLED_VIEWS);
+        if (count > max && max < MAX_RECYCLED_VIEWS) {
+            final int tuned = Math.min(count, MAX_RECYCLED_VIEWS);
+            mMaxRecycledViews.put(viewType, tuned);
+            super.setMaxRecycledViews(viewType, tuned);
+        }
+    }
+
+    /**
+     * Counts the view holders of each view type attached to a single {@link RecyclerView}
+     */
+    private class AttachedCounter implements RecyclerView.OnChildAttachStateChangeListener {
+
+        private final SparseIntArray mCounts = new SparseIntArray();
+
+        @Override
+        public void onChildViewAttachedToWindow(View view) {
+            final RecyclerView.ViewHolder holder = getViewHolder(view);
+            if (holder == null) {
+                return;
+            }
+
+            final int viewType = holder.getItemViewType();
+            final int count = mCounts.get(viewType) + 1;
+            mCounts.put(viewType, count);
+            onAttachedCountChanged(viewType, count);
+        }
+
+        @Override
+        public void onChildViewDetachedFromWindow(View view) {
+            final RecyclerView.ViewHolder holder = getViewHolder(view);
+            if (holder == null) {
+                return;
+            }
+
+            final int viewType = holder.getItemViewType();
+            mCounts.put(viewType, Math.max(mCounts.get(viewType) - 1, 0));
+        }
+
+        /**
+         * The {@link RecyclerView} is not referenced, so it can still be collected from the
+         * {@link WeakHashMap}; the child is attached to it during both callbacks
+         */
+        @Nullable
+        private RecyclerView.ViewHolder getViewHolder(@NonNull View view) {
+            return view.getParent() instanceof RecyclerView
+                    ? ((RecyclerView) view.getParent()).getChildViewHolder(view) : null;
+        }
+    }
+}
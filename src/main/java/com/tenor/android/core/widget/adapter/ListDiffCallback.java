@@ -0,0 +1,68 @@
+package com.tenor.android.core.widget.adapter;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v7.util.DiffUtil;
+
+import com.tenor.android.core.model.IGif;
+
+import java.util.List;
+
+/**
+ * {@link DiffUtil.Callback} of two snapshots of a {@link ListRVAdapter} list
+ * <p>
+ * Items are matched by {@link IGif#getId()}, or by {@link IRVItem#getType()} and {@link IRVItem#getId()},
+ * and matched items are considered unchanged, so they are not rebound; other items are compared
+ * with {@link Object#equals(Object)}
+ */
+class ListDiffCallback<T> extends DiffUtil.Callback {
+
+    private final List<T> mOldList;
+    private final List<T> mNewList;
+
+    ListDiffCallback(@NonNull List<T> oldList, @NonNull List<T> newList) {
+        mOldList = oldList;
+        mNewList = newList;
+    }
+
+    @Override
+    public int getOldListSize() {
+        return mOldList.size();
+    }
+
+    @Override
+    public int getNewListSize() {
+        return mNewList.size();
+    }
+
+    @Override
+    public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+        final T oldItem = mOldList.get(oldItemPosition);
+        final T newItem = mNewList.get(newItemPosition);
+        if (oldItem instanceof IGif && newItem instanceof IGif) {
+            return equals(((IGif) oldItem).getId(), ((IGif) newItem).getId());
+        }
+
+        if (oldItem instanceof IRVItem && newItem instanceof IRVItem) {
+            final IRVItem oldRVItem = (IRVItem) oldItem;
+            final IRVItem newRVItem = (IRVItem) newItem;
+            return oldRVItem.getType() == newRVItem.getType() && equals(oldRVItem.getId(), newRVItem.getId());
+        }
+        return equals(oldItem, newItem);
+    }
+
+    @Override
+    public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+        final T oldItem = mOldList.get(oldItemPosition);
+        final T newItem = mNewList.get(newItemPosition);
+        if (oldItem instanceof IGif || oldItem instanceof IRVItem) {
+            // the same GIF or item keeps its content
+            return true;
+        }
+        return equals(oldItem, newItem);
+    }
+
+    private static boolean equals(@Nullable Object a, @Nullable Object b) {
+        return a == null ? b == null : a.equals(b);
+    }
+}
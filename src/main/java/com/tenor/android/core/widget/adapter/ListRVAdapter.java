@@ -1,17 +1,24 @@
 package com.tenor.android.core.widget.adapter;
 
+import android.os.Handler;
+import android.os.Looper;
 import android.support.annotation.CallSuper;
+import android.support.annotation.MainThread;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
+import android.support.v7.util.DiffUtil;
 import android.support.v7.widget.RecyclerView;
 
+import com.tenor.android.core.model.IGif;
 import com.tenor.android.core.view.IBaseView;
 
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.Stack;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * The {@link RecyclerView} implementation of {@link android.widget.ListAdapter}
@@ -23,7 +30,11 @@ import java.util.Stack;
 public abstract class ListRVAdapter<CTX extends IBaseView, T, VH extends RecyclerView.ViewHolder>
         extends AbstractRVAdapter<CTX, VH> {
 
+    private static ExecutorService sDiffExecutor;
+
     private final List<T> mList;
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    private int mUpdateGeneration;
 
     public ListRVAdapter(@Nullable final CTX ctx) {
         super(ctx);
@@ -71,33 +82,161 @@ public abstract class ListRVAdapter<CTX extends IBaseView, T, VH extends Recycle
         getList().clear();
     }
 
+    /**
+     * Replace the list with the given one, with the minimal {@code notifyItemRange*} calls instead
+     * of {@link #notifyDataSetChanged()}
+     * <p>
+     * The difference is calculated on a background thread, matching the items by {@link IGif#getId()}
+     * or {@link IRVItem#getId()}. The unchanged items are neither rebound nor measured again, and
+     * only the latest of overlapping updates is applied
+     *
+     * @param list the new list
+     */
+    @MainThread
+    public void update(@NonNull List<T> list) {
+        final List<T> oldList = new ArrayList<>(getList());
+        final List<T> newList = new ArrayList<>(list);
+        final int generation = ++mUpdateGeneration;
+
+        getDiffExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                final DiffUtil.DiffResult result =
+                        DiffUtil.calculateDiff(new ListDiffCallback<>(oldList, newList), false);
+                mMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        onUpdateCalculated(generation, oldList, newList, result);
+                    }
+                });
+            }
+        });
+    }
+
+    private void onUpdateCalculated(int generation, @NonNull List<T> oldList, @NonNull List<T> newList,
+                                    @NonNull DiffUtil.DiffResult result) {
+        if (generation != mUpdateGeneration) {
+            // superseded by a later update
+            return;
+        }
+
+        final boolean unchanged = isSameList(getList(), oldList);
+        getList().clear();
+        getList().addAll(newList);
+        if (unchanged) {
+            result.dispatchUpdatesTo(this);
+        } else {
+            // the list has been modified while the difference was being calculated
+            notifyDataSetChanged();
+        }
+    }
+
+    private static <T> boolean isSameList(@NonNull List<T> list, @NonNull List<T> snapshot) {
+        final int size = list.size();
+        if (size != snapshot.size()) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (list.get(i) != snapshot.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Remove the items matching the given condition, and notify the removed ranges
+     *
+     * @param condition the {@link IRemoveCondition}
+     * @return the removed positions, in ascending order
+     */
+    @NonNull
+    public synchronized int[] remove(@NonNull final IRemoveCondition<T> condition) {
+        final int[] positions = removeItems(condition);
+
+        // notify the contiguous runs from the last one, so the earlier positions stay valid
+        int end = positions.length;
+        while (end > 0) {
+            int start = end - 1;
+            while (start > 0 && positions[start - 1] == positions[start] - 1) {
+                start--;
+            }
+            notifyItemRangeRemoved(positions[start], end - start);
+            end = start;
+        }
+        return positions;
+    }
+
+    /**
+     * Remove the items matching the given conditions, and hand the removed positions to
+     * {@link IThreadSafeConditions#onItemsRemoved(Stack)}
+     * <p>
+     * Each position is shifted by the removals before it, so the positions can be notified one
+     * by one in the order they were pushed
+     */
     public synchronized void threadSafeRemove(@NonNull final IThreadSafeConditions<T> conditions) {
 
         if (conditions == null) {
             throw new IllegalArgumentException("conditions cannot be null");
         }
 
-        /*
-         * Remove everything except PivotsRV
-         *
-         * Use iterator to avoid ConcurrentModificationException
-         */
-        ListIterator<T> iterator = getList().listIterator();
+        final int[] removed = removeItems(conditions);
         final Stack<Integer> positions = new Stack<>();
-        int position;
+        for (int i = 0; i < removed.length; i++) {
+            positions.push(removed[i] - i);
+        }
+        conditions.onItemsRemoved(positions);
+    }
+
+    /**
+     * Remove the items matching the given condition in a single pass, compacting the list in place
+     *
+     * @return the removed positions, in ascending order
+     */
+    @NonNull
+    private int[] removeItems(@NonNull IRemoveCondition<T> condition) {
+        final List<T> list = getList();
+        final int size = list.size();
+        int[] positions = new int[0];
+        int count = 0;
+        int kept = 0;
         T item;
-        while (iterator.hasNext()) {
-            position = iterator.nextIndex();
-            item = iterator.next();
-            if (conditions.removeIf(item)) {
-                iterator.remove();
-                positions.push(position);
+        for (int i = 0; i < size; i++) {
+            item = list.get(i);
+            if (condition.removeIf(item)) {
+                if (count == positions.length) {
+                    positions = Arrays.copyOf(positions, Math.max(count * 2, 8));
+                }
+                positions[count++] = i;
+            } else {
+                if (kept != i) {
+                    list.set(kept, item);
+                }
+                kept++;
             }
         }
-        conditions.onItemsRemoved(positions);
+
+        if (count > 0) {
+            list.subList(kept, size).clear();
+        }
+        return count == positions.length ? positions : Arrays.copyOf(positions, count);
+    }
+
+    private static synchronized ExecutorService getDiffExecutor() {
+        if (sDiffExecutor == null) {
+            sDiffExecutor = Executors.newSingleThreadExecutor();
+        }
+        return sDiffExecutor;
+    }
+
+    public interface IRemoveCondition<T> {
+        /**
+         * Condition for removing <T>
+         */
+        boolean removeIf(T item);
     }
 
-    public interface IThreadSafeConditions<T> {
+    public interface IThreadSafeConditions<T> extends IRemoveCondition<T> {
         /**
          * Condition for removing <T>
          */
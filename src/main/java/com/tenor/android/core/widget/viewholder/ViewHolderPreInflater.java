@@ -0,0 +1,166 @@
+package com.tenor.android.core.widget.viewholder;
+
+import android.content.Context;
+import android.support.annotation.IntRange;
+import android.support.annotation.LayoutRes;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v4.view.AsyncLayoutInflater;
+import android.support.v7.widget.RecyclerView;
+import android.support.v7.widget.StaggeredGridLayoutManager;
+import android.util.AttributeSet;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.tenor.android.core.view.IBaseView;
+
+import java.util.ArrayDeque;
+
+/**
+ * Inflates the item views of {@link StaggeredGridLayoutItemViewHolder}s ahead of time, off the main
+ * thread through {@link AsyncLayoutInflater}, such as on app start or on the
+ * {@link android.inputmethodservice.InputMethodService#onCreate()} of a keyboard, so the first
+ * screen of a grid is served from {@link RecyclerView.Adapter#onCreateViewHolder(ViewGroup, int)}
+ * without inflating on the main thread
+ * <p>
+ * The item views get {@link StaggeredGridLayoutManager.LayoutParams} generated from the attributes
+ * of their layout, exactly as if they were inflated into a {@link RecyclerView} with a
+ * {@link StaggeredGridLayoutManager}
+ * <p>
+ * Use the {@link Context} the grid will be displayed with, so the item views get the same theme
+ *
+ * @param <CTX> the referenced context
+ * @param <VH>  the view holder type extending from {@link StaggeredGridLayoutItemViewHolder}
+ */
+@MainThread
+public class ViewHolderPreInflater<CTX extends IBaseView, VH extends StaggeredGridLayoutItemViewHolder<CTX>>
+        implements AsyncLayoutInflater.OnInflateFinishedListener {
+
+    /**
+     * Create a view holder of a pre-inflated item view, called on the main thread
+     */
+    public interface IViewHolderFactory<VH extends RecyclerView.ViewHolder> {
+        @NonNull
+        VH create(@NonNull View itemView);
+    }
+
+    private final int mLayoutId;
+    private final IViewHolderFactory<VH> mFactory;
+    private final AsyncLayoutInflater mInflater;
+    private final ViewGroup mParent;
+    private final ArrayDeque<VH> mViewHolders = new ArrayDeque<>();
+    private int mTarget;
+    private boolean mInflating;
+
+    /**
+     * @param context  the context the grid will be displayed with
+     * @param layoutId the layout of the item view
+     * @param factory  the {@link IViewHolderFactory}
+     */
+    public ViewHolderPreInflater(@NonNull Context context,
+                                 @LayoutRes int layoutId,
+                                 @NonNull IViewHolderFactory<VH> factory) {
+        mLayoutId = layoutId;
+        mFactory = factory;
+        mInflater = new AsyncLayoutInflater(context);
+        mParent = new LayoutParamsParent(context);
+    }
+
+    /**
+     * Inflate item views in the background until the given number of them is ready
+     *
+     * @param count the number of item views to keep ready, such as the number of cells on the first screen
+     */
+    public void preInflate(@IntRange(from = 0) int count) {
+        mTarget = Math.max(count, 0);
+        inflateNext();
+    }
+
+    /**
+     * @return the number of pre-inflated view holders ready to be obtained
+     */
+    public int size() {
+        return mViewHolders.size();
+    }
+
+    /**
+     * Get a pre-inflated view holder, usually from {@link RecyclerView.Adapter#onCreateViewHolder(ViewGroup, int)}
+     *
+     * @return the view holder, or {@code null} if none is ready yet
+     */
+    @Nullable
+    public VH poll() {
+        final VH holder = mViewHolders.poll();
+        if (holder != null && mTarget > 0) {
+            mTarget--;
+        }
+        return holder;
+    }
+
+    /**
+     * Get a pre-inflated view holder, or inflate one synchronously into the given parent if none is ready yet
+     *
+     * @param parent the {@link RecyclerView} of {@link RecyclerView.Adapter#onCreateViewHolder(ViewGroup, int)}
+     * @return the view holder
+     */
+    @NonNull
+    public VH obtain(@NonNull ViewGroup parent) {
+        final VH holder = poll();
+        if (holder != null) {
+            return holder;
+        }
+        final View itemView = LayoutInflater.from(parent.getContext()).inflate(mLayoutId, parent, false);
+        return mFactory.create(itemView);
+    }
+
+    /**
+     * Stop inflating and drop the view holders which have not been obtained
+     */
+    public void clear() {
+        mTarget = 0;
+        mViewHolders.clear();
+    }
+
+    @Override
+    public void onInflateFinished(@NonNull View view, int resid, @Nullable ViewGroup parent) {
+        mInflating = false;
+        if (mViewHolders.size() < mTarget) {
+            mViewHolders.add(mFactory.create(view));
+        }
+        inflateNext();
+    }
+
+    /**
+     * Inflate one item view at a time, {@link AsyncLayoutInflater} blocks the calling thread once
+     * its queue is full
+     */
+    private void inflateNext() {
+        if (mInflating || mViewHolders.size() >= mTarget) {
+            return;
+        }
+        mInflating = true;
+        mInflater.inflate(mLayoutId, mParent, this);
+    }
+
+    /**
+     * Generates {@link StaggeredGridLayoutManager.LayoutParams} for the inflated item views, it is
+     * never attached and never gets any child
+     */
+    private static class LayoutParamsParent extends ViewGroup {
+
+        LayoutParamsParent(@NonNull Context context) {
+            super(context);
+        }
+
+        @Override
+        protected void onLayout(boolean changed, int l, int t, int r, int b) {
+        }
+
+        @Override
+        public LayoutParams generateLayoutParams(AttributeSet attrs) {
+            return new StaggeredGridLayoutManager.LayoutParams(getContext(), attrs);
+        }
+    }
+}
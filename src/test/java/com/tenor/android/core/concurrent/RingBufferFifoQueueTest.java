@@ -0,0 +1,178 @@
+package com.tenor.android.core.concurrent;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RingBufferFifoQueueTest {
+
+    @Test
+    public void capacityIsRoundedUpToPowerOfTwo() {
+        assertEquals(2, new RingBufferFifoQueue<Integer>(1, OverflowPolicy.DROP_NEWEST).capacity());
+        assertEquals(2, new RingBufferFifoQueue<Integer>(2, OverflowPolicy.DROP_NEWEST).capacity());
+        assertEquals(4, new RingBufferFifoQueue<Integer>(3, OverflowPolicy.DROP_NEWEST).capacity());
+        assertEquals(1024, new RingBufferFifoQueue<Integer>(1000, OverflowPolicy.DROP_NEWEST).capacity());
+        assertEquals(1024, new RingBufferFifoQueue<Integer>(1024, OverflowPolicy.DROP_NEWEST).capacity());
+    }
+
+    @Test
+    public void invalidCapacity() {
+        for (int capacity : new int[]{0, -1, (1 << 30) + 1}) {
+            try {
+                new RingBufferFifoQueue<Integer>(capacity, OverflowPolicy.DROP_NEWEST);
+                fail("capacity " + capacity + " should be rejected");
+            } catch (IllegalArgumentException ignored) {
+            }
+        }
+    }
+
+    @Test
+    public void capacityOfOneDoesNotOverwrite() {
+        final RingBufferFifoQueue<Integer> queue = new RingBufferFifoQueue<>(1, OverflowPolicy.DROP_NEWEST);
+        assertTrue(queue.offer(1));
+        assertTrue(queue.offer(2));
+        assertFalse(queue.offer(3));
+
+        assertEquals(Integer.valueOf(1), queue.poll());
+        assertEquals(Integer.valueOf(2), queue.poll());
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void wrapAround() {
+        final RingBufferFifoQueue<Integer> queue = new RingBufferFifoQueue<>(4, OverflowPolicy.DROP_NEWEST);
+        int next = 0;
+        int expected = 0;
+        assertTrue(queue.offer(next++));
+        for (int lap = 0; lap < 10; lap++) {
+            // keep one element behind and fill the queue, moving by 3 slots of 4, so head and tail land on every slot
+            for (int i = 0; i < 3; i++) {
+                assertTrue(queue.offer(next++));
+            }
+            assertFalse(queue.offer(-1));
+            assertEquals(4, queue.size());
+            for (int i = 0; i < 3; i++) {
+                assertEquals(Integer.valueOf(expected++), queue.poll());
+            }
+        }
+
+        assertEquals(Integer.valueOf(expected++), queue.poll());
+        assertEquals(next, expected);
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void fullDropNewest() {
+        final RingBufferFifoQueue<Integer> queue = new RingBufferFifoQueue<>(4, OverflowPolicy.DROP_NEWEST);
+        for (int i = 0; i < 6; i++) {
+            queue.add(i);
+        }
+
+        assertEquals(4, queue.size());
+        assertEquals(2, queue.droppedCount());
+        assertFalse(queue.offer(6));
+
+        final List<Integer> drained = new ArrayList<>();
+        assertEquals(4, queue.drain(drained, Integer.MAX_VALUE));
+        assertEquals(4, drained.size());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(Integer.valueOf(i), drained.get(i));
+        }
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void fullDropOldest() {
+        final RingBufferFifoQueue<Integer> queue = new RingBufferFifoQueue<>(4, OverflowPolicy.DROP_OLDEST);
+        for (int i = 0; i < 6; i++) {
+            queue.add(i);
+        }
+
+        assertEquals(4, queue.size());
+        assertEquals(2, queue.droppedCount());
+        for (int i = 2; i < 6; i++) {
+            assertEquals(Integer.valueOf(i), queue.poll());
+        }
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void drainUpToMax() {
+        final RingBufferFifoQueue<Integer> queue = new RingBufferFifoQueue<>(8, OverflowPolicy.DROP_NEWEST);
+        for (int i = 0; i < 5; i++) {
+            queue.add(i);
+        }
+
+        final List<Integer> drained = new ArrayList<>();
+        assertEquals(3, queue.drain(drained, 3));
+        assertEquals(2, queue.size());
+        assertEquals(Integer.valueOf(3), queue.poll());
+    }
+
+    @Test
+    public void multipleProducers() throws InterruptedException {
+        final int producers = 4;
+        final int perProducer = 20000;
+        final RingBufferFifoQueue<Integer> queue = new RingBufferFifoQueue<>(64, OverflowPolicy.BLOCK);
+        final CountDownLatch start = new CountDownLatch(1);
+
+        final List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            final int producer = p;
+            final Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < perProducer; i++) {
+                        queue.add(producer * perProducer + i);
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+
+        // each producer's elements come out in the order it added them, and none is lost or duplicated
+        final int[] last = new int[producers];
+        for (int p = 0; p < producers; p++) {
+            last[p] = -1;
+        }
+        int received = 0;
+        final long deadline = System.currentTimeMillis() + 30000;
+        while (received < producers * perProducer) {
+            final Integer value = queue.poll();
+            if (value == null) {
+                if (System.currentTimeMillis() > deadline) {
+                    fail("only received " + received + " elements");
+                }
+                Thread.yield();
+                continue;
+            }
+
+            final int producer = value / perProducer;
+            final int index = value % perProducer;
+            assertEquals(last[producer] + 1, index);
+            last[producer] = index;
+            received++;
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertNull(queue.poll());
+        assertEquals(0, queue.droppedCount());
+    }
+}
@@ -0,0 +1,115 @@
+package com.tenor.android.core.measurable;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.tenor.android.core.constant.ItemVisualPosition;
+import com.tenor.android.core.constant.ViewAction;
+
+import org.junit.Test;
+
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Checks {@link MeasurableViewHolderEventTypeAdapter} against the {@code String.format} based
+ * encoding it replaces
+ */
+public class MeasurableViewHolderEventTypeAdapterTest {
+
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapter(MeasurableViewHolderEvent.class, new MeasurableViewHolderEventTypeAdapter())
+            .create();
+
+    @Test
+    public void formatFractionEdgeCases() {
+        final float[] fractions = {0f, -0f, 1f, -1f, 0.5f, 0.1f, 1f / 3, 2f / 3, 0.9999995f, 0.0000005f,
+                0.0000004f, -0.0000004f, 0.0000015f, 0.1234565f, 999999.9f, 1000000f, 123456789f,
+                Float.MIN_VALUE, -Float.MIN_VALUE, Float.MAX_VALUE, Float.NaN,
+                Float.POSITIVE_INFINITY, Float.NEGATIVE_INFINITY, MeasurableViewHolderEvent.UNKNOWN};
+        for (float fraction : fractions) {
+            assertFormat(fraction);
+        }
+    }
+
+    @Test
+    public void formatFractionRandom() {
+        final Random random = new Random(17);
+        for (int i = 0; i < 200000; i++) {
+            // actual fractions, fractions near a rounding boundary of the 6th decimal, and any float
+            assertFormat(random.nextFloat());
+            assertFormat((random.nextInt(2000001) - 1000000) / 1e6f + (random.nextInt(3) - 1) * 5e-7f);
+            assertFormat(Float.intBitsToFloat(random.nextInt()));
+        }
+    }
+
+    @Test
+    public void roundTrip() {
+        final MeasurableViewHolderEvent event =
+                new MeasurableViewHolderEvent("source", ViewAction.VIEW, "-0400", ItemVisualPosition.LEFT);
+        event.mTimestamp = 1508270182000L;
+        event.mDuration = 1234;
+        event.mVisibleFraction = 0.75f;
+
+        final JsonObject json = new JsonParser().parse(GSON.toJson(event)).getAsJsonObject();
+        assertEquals("source", json.get("source_id").getAsString());
+        assertEquals("1508270182000", json.get("timestamp").getAsString());
+        assertEquals(ViewAction.VIEW, json.get("action").getAsString());
+        assertEquals("-0400", json.get("timezone").getAsString());
+        assertEquals(ItemVisualPosition.LEFT, json.get("visual_pos").getAsString());
+        assertEquals("1234", json.get("elapsed_ms").getAsString());
+        assertEquals(String.format(Locale.US, "%f", 0.75f), json.get("visible_fraction").getAsString());
+
+        final MeasurableViewHolderEvent read = GSON.fromJson(json, MeasurableViewHolderEvent.class);
+        assertEquals(event.mSourceId, read.mSourceId);
+        assertEquals(event.mTimestamp, read.mTimestamp);
+        assertEquals(event.mAction, read.mAction);
+        assertEquals(event.mUtcOffset, read.mUtcOffset);
+        assertEquals(event.mVisualPosition, read.mVisualPosition);
+        assertEquals(event.mDuration, read.mDuration);
+        assertEquals(event.mVisibleFraction, read.mVisibleFraction, 0f);
+        assertEquals(GSON.toJson(event), GSON.toJson(read));
+    }
+
+    @Test
+    public void plainGsonUsesAdapter() {
+        final MeasurableViewHolderEvent event =
+                new MeasurableViewHolderEvent("source", ViewAction.VIEW, "-0400", ItemVisualPosition.LEFT);
+        event.mDuration = 1234;
+
+        assertEquals(GSON.toJson(event), new Gson().toJson(event));
+        final JsonObject json = new JsonParser().parse(new Gson().toJson(event)).getAsJsonObject();
+        assertEquals("source", json.get("source_id").getAsString());
+        assertFalse(json.has("mSourceId"));
+    }
+
+    @Test
+    public void roundTripUnknown() {
+        final MeasurableViewHolderEvent event =
+                new MeasurableViewHolderEvent("source", ViewAction.VIEW, "+0000", ItemVisualPosition.RIGHT);
+
+        final JsonObject json = new JsonParser().parse(GSON.toJson(event)).getAsJsonObject();
+        assertFalse(json.has("elapsed_ms"));
+        assertFalse(json.has("visible_fraction"));
+
+        final MeasurableViewHolderEvent read = GSON.fromJson(json, MeasurableViewHolderEvent.class);
+        assertEquals(MeasurableViewHolderEvent.UNKNOWN, read.mDuration);
+        assertEquals(MeasurableViewHolderEvent.UNKNOWN, read.mVisibleFraction, 0f);
+    }
+
+    @Test
+    public void readNull() {
+        assertNull(GSON.fromJson("null", MeasurableViewHolderEvent.class));
+        assertEquals("null", GSON.toJson(null, MeasurableViewHolderEvent.class));
+    }
+
+    private static void assertFormat(float fraction) {
+        assertEquals("fraction " + fraction, String.format(Locale.US, "%f", fraction),
+                MeasurableViewHolderEventTypeAdapter.formatFraction(fraction));
+    }
+}
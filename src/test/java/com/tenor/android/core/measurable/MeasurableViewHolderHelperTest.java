@@ -0,0 +1,94 @@
+package com.tenor.android.core.measurable;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the bounds based {@link MeasurableViewHolderHelper#calculateVisibleFraction(int, int, int,
+ * int, int, int, int, int, int, int, float, boolean)} that {@link VisibleFractionCalculator} calls
+ * for every item view on every scroll frame
+ * <p>
+ * The {@link android.view.View} queries of {@link VisibleFractionCalculator} need a device, so only the
+ * part that runs on the JVM is covered here
+ */
+public class MeasurableViewHolderHelperTest {
+
+    private static final int RV_LEFT = 0;
+    private static final int RV_TOP = 200;
+    private static final int RV_RIGHT = 1080;
+    private static final int RV_BOTTOM = 2120;
+    private static final int ITEM_WIDTH = 1080;
+    private static final int ITEM_HEIGHT = 400;
+
+    private float mSum;
+
+    @Test
+    public void calculateVisibleFraction() {
+        // fully visible
+        assertEquals(1f, calculate(RV_TOP + 100), 0f);
+        // half of it above the top
+        assertEquals(0.5f, calculate(RV_TOP - ITEM_HEIGHT / 2), 0f);
+        // more than the threshold out of the top or the bottom
+        assertEquals(0.01f, calculate(RV_TOP - ITEM_HEIGHT * 3 / 4), 0f);
+        assertEquals(0.01f, calculate(RV_BOTTOM - ITEM_HEIGHT / 4), 0f);
+        // nothing visible
+        assertEquals(0.01f, MeasurableViewHolderHelper.calculateVisibleFraction(RV_LEFT, RV_TOP,
+                RV_RIGHT, RV_BOTTOM, 0, RV_BOTTOM, ITEM_WIDTH, 0, ITEM_WIDTH, ITEM_HEIGHT, 0.5f, false), 0f);
+    }
+
+    @Test
+    public void flingDoesNotAllocate() {
+        // let the JIT compile the loop before counting
+        fling(2000);
+
+        final long before = allocatedBytes();
+        final long overhead = allocatedBytes() - before;
+        final long start = allocatedBytes();
+        fling(20000);
+        final long allocated = allocatedBytes() - start - overhead;
+
+        if (before >= 0) {
+            assertEquals("bytes allocated by a fling of 20000 frames", 0, Math.max(allocated, 0));
+        }
+        assertTrue(mSum > 0);
+    }
+
+    /**
+     * Scroll a column of items through the {@link android.support.v7.widget.RecyclerView} by 40px a
+     * frame, measuring every item view that is laid out on each frame
+     */
+    private void fling(int frames) {
+        for (int frame = 0; frame < frames; frame++) {
+            final int offset = (frame * 40) % ITEM_HEIGHT;
+            for (int y = RV_TOP - ITEM_HEIGHT - offset; y < RV_BOTTOM + ITEM_HEIGHT; y += ITEM_HEIGHT) {
+                mSum += calculate(y);
+            }
+        }
+    }
+
+    private static float calculate(int y) {
+        final int visibleHeight = Math.max(Math.min(y + ITEM_HEIGHT, RV_BOTTOM) - Math.max(y, RV_TOP), 0);
+        return MeasurableViewHolderHelper.calculateVisibleFraction(RV_LEFT, RV_TOP, RV_RIGHT, RV_BOTTOM,
+                RV_LEFT, y, ITEM_WIDTH, visibleHeight, ITEM_WIDTH, ITEM_HEIGHT, 0.5f, false);
+    }
+
+    /**
+     * @return the bytes allocated by the current thread so far, or -1 if the JVM does not count them
+     */
+    private static long allocatedBytes() {
+        final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        final com.sun.management.ThreadMXBean sun = (com.sun.management.ThreadMXBean) bean;
+        if (!sun.isThreadAllocatedMemorySupported() || !sun.isThreadAllocatedMemoryEnabled()) {
+            return -1;
+        }
+        return sun.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,152 @@
+package com.tenor.android.core.model.impl;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.tenor.android.core.constant.MediaCollectionFormat;
+import com.tenor.android.core.response.impl.GifsResponse;
+import com.tenor.android.core.response.impl.ResponseTypeAdapterFactory;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Measures the parse time and allocations of a 50 result search page, built from
+ * {@code search_response.json}, with the reflective adapters of Gson and the hand-written adapters
+ * of {@link ModelTypeAdapterFactory}
+ * <p>
+ * Timings are printed only, since they depend on the machine; allocations are asserted where the
+ * JVM can count them per thread
+ */
+public class ModelTypeAdapterFactoryBenchmark {
+
+    private static final int RESULTS = 50;
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 500;
+
+    private static final Gson REFLECTIVE = new Gson();
+
+    private static final Gson HAND_WRITTEN = new GsonBuilder()
+            .registerTypeAdapterFactory(new ModelTypeAdapterFactory())
+            .registerTypeAdapterFactory(new ResponseTypeAdapterFactory())
+            .create();
+
+    private static final Gson HAND_WRITTEN_FILTERED = new GsonBuilder()
+            .registerTypeAdapterFactory(new ModelTypeAdapterFactory(
+                    Arrays.asList(MediaCollectionFormat.GIF_TINY, MediaCollectionFormat.MP4_NANO)))
+            .registerTypeAdapterFactory(new ResponseTypeAdapterFactory())
+            .create();
+
+    @Test
+    public void parseSearchPage() throws IOException {
+        final String json = createPage(readResource("search_response.json"));
+        assertEquals(RESULTS, HAND_WRITTEN.fromJson(json, GifsResponse.class).getResults().size());
+
+        final Result reflective = measure(REFLECTIVE, json);
+        final Result handWritten = measure(HAND_WRITTEN, json);
+        final Result filtered = measure(HAND_WRITTEN_FILTERED, json);
+
+        System.out.println(String.format(Locale.US, "%d results, %d bytes of JSON", RESULTS, json.length()));
+        print("reflective", reflective);
+        print("hand-written", handWritten);
+        print("hand-written, 2 formats", filtered);
+
+        if (reflective.bytes >= 0) {
+            assertTrue("hand-written adapters allocate more than reflective ones",
+                    handWritten.bytes <= reflective.bytes);
+            assertTrue("skipped formats allocate more than decoded ones",
+                    filtered.bytes <= handWritten.bytes);
+        }
+    }
+
+    private static Result measure(Gson gson, String json) {
+        for (int i = 0; i < WARMUP; i++) {
+            gson.fromJson(json, GifsResponse.class);
+        }
+
+        final long startBytes = allocatedBytes();
+        final long startNanos = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            gson.fromJson(json, GifsResponse.class);
+        }
+        final long nanos = System.nanoTime() - startNanos;
+        final long endBytes = allocatedBytes();
+
+        final Result result = new Result();
+        result.nanos = nanos / ITERATIONS;
+        result.bytes = startBytes >= 0 && endBytes >= 0 ? (endBytes - startBytes) / ITERATIONS : -1;
+        return result;
+    }
+
+    /**
+     * @return the bytes allocated by the current thread so far, or -1 if the JVM does not count them
+     */
+    private static long allocatedBytes() {
+        final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        final com.sun.management.ThreadMXBean sun = (com.sun.management.ThreadMXBean) bean;
+        if (!sun.isThreadAllocatedMemorySupported() || !sun.isThreadAllocatedMemoryEnabled()) {
+            return -1;
+        }
+        return sun.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static void print(String name, Result result) {
+        System.out.println(String.format(Locale.US, "%-24s %8.1f us/parse %10s bytes/parse", name,
+                result.nanos / 1000f, result.bytes >= 0 ? String.valueOf(result.bytes) : "n/a"));
+    }
+
+    /**
+     * Repeat the results of the given page up to {@link #RESULTS}, the page size of the app
+     */
+    private static String createPage(String json) {
+        final JsonObject page = new JsonParser().parse(json).getAsJsonObject();
+        final JsonArray results = page.getAsJsonArray("results");
+        final JsonArray repeated = new JsonArray();
+        for (int i = 0; i < RESULTS; i++) {
+            repeated.add(results.get(i % results.size()));
+        }
+        page.add("results", repeated);
+        return REFLECTIVE.toJson(page);
+    }
+
+    private String readResource(String name) throws IOException {
+        final InputStream in = getClass().getClassLoader().getResourceAsStream(name);
+        assertNotNull(name, in);
+
+        final Reader reader = new InputStreamReader(in, Charset.forName("UTF-8"));
+        try {
+            final StringBuilder sb = new StringBuilder();
+            final char[] buffer = new char[4096];
+            int count;
+            while ((count = reader.read(buffer)) != -1) {
+                sb.append(buffer, 0, count);
+            }
+            return sb.toString();
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static class Result {
+        private long nanos;
+        private long bytes;
+    }
+}
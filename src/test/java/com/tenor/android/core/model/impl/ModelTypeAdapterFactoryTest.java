@@ -0,0 +1,109 @@
+package com.tenor.android.core.model.impl;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.tenor.android.core.response.impl.EmojiResponse;
+import com.tenor.android.core.response.impl.GifsResponse;
+import com.tenor.android.core.response.impl.ResponseTypeAdapterFactory;
+import com.tenor.android.core.response.impl.TagsResponse;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * Checks the hand-written adapters of {@link ModelTypeAdapterFactory} and {@link ResponseTypeAdapterFactory}
+ * against the reflective adapters of Gson
+ */
+public class ModelTypeAdapterFactoryTest {
+
+    private static final Gson REFLECTIVE = new Gson();
+
+    private static final Gson HAND_WRITTEN = new GsonBuilder()
+            .registerTypeAdapterFactory(new ModelTypeAdapterFactory())
+            .registerTypeAdapterFactory(new ResponseTypeAdapterFactory())
+            .create();
+
+    private static final String TAGS_RESPONSE = "{\"tags\":["
+            + "{\"searchterm\":\"excited\",\"path\":\"/search/excited\",\"image\":\"https://media.tenor.com/a.gif\",\"name\":\"#excited\"},"
+            + "{\"searchterm\":\"yes\",\"url\":\"/search/yes\",\"image\":\"https://media.tenor.com/b.gif\",\"name\":\"#yes\",\"dims\":[220,124]}"
+            + "]}";
+
+    private static final String EMOJI_RESPONSE = "{\"tags\":["
+            + "{\"character\":\"\\ud83d\\ude02\",\"name\":\"#joy\",\"path\":\"/search/joy\",\"searchterm\":\"joy\"},"
+            + "{\"character\":\"\\u2764\",\"name\":\"#heart\",\"searchterm\":\"heart\",\"unknown\":{\"a\":[1,2]}}"
+            + "]}";
+
+    @Test
+    public void readSearchResponse() throws IOException {
+        final String json = readResource("search_response.json");
+
+        final GifsResponse expected = REFLECTIVE.fromJson(json, GifsResponse.class);
+        final GifsResponse actual = HAND_WRITTEN.fromJson(json, GifsResponse.class);
+
+        assertEquals(2, actual.getResults().size());
+        assertEquals(REFLECTIVE.toJsonTree(expected), REFLECTIVE.toJsonTree(actual));
+    }
+
+    @Test
+    public void writeSearchResponse() throws IOException {
+        final GifsResponse response = REFLECTIVE.fromJson(readResource("search_response.json"), GifsResponse.class);
+        assertSameJson(REFLECTIVE.toJson(response), HAND_WRITTEN.toJson(response));
+    }
+
+    @Test
+    public void readTagsResponse() {
+        final TagsResponse expected = REFLECTIVE.fromJson(TAGS_RESPONSE, TagsResponse.class);
+        final TagsResponse actual = HAND_WRITTEN.fromJson(TAGS_RESPONSE, TagsResponse.class);
+        assertEquals(REFLECTIVE.toJsonTree(expected), REFLECTIVE.toJsonTree(actual));
+        assertSameJson(REFLECTIVE.toJson(expected), HAND_WRITTEN.toJson(expected));
+    }
+
+    @Test
+    public void readEmojiResponse() {
+        final EmojiResponse expected = REFLECTIVE.fromJson(EMOJI_RESPONSE, EmojiResponse.class);
+        final EmojiResponse actual = HAND_WRITTEN.fromJson(EMOJI_RESPONSE, EmojiResponse.class);
+        assertEquals(REFLECTIVE.toJsonTree(expected), REFLECTIVE.toJsonTree(actual));
+        assertSameJson(REFLECTIVE.toJson(expected), HAND_WRITTEN.toJson(expected));
+    }
+
+    @Test
+    public void readNull() {
+        assertEquals(REFLECTIVE.toJsonTree(REFLECTIVE.fromJson("{\"results\":null}", GifsResponse.class)),
+                REFLECTIVE.toJsonTree(HAND_WRITTEN.fromJson("{\"results\":null}", GifsResponse.class)));
+    }
+
+    private static void assertSameJson(String expected, String actual) {
+        final JsonParser parser = new JsonParser();
+        final JsonElement e = parser.parse(expected);
+        final JsonElement a = parser.parse(actual);
+        assertEquals(e, a);
+    }
+
+    private String readResource(String name) throws IOException {
+        final InputStream in = getClass().getClassLoader().getResourceAsStream(name);
+        assertNotNull(name, in);
+
+        final Reader reader = new InputStreamReader(in, Charset.forName("UTF-8"));
+        try {
+            final StringBuilder sb = new StringBuilder();
+            final char[] buffer = new char[4096];
+            int count;
+            while ((count = reader.read(buffer)) != -1) {
+                sb.append(buffer, 0, count);
+            }
+            return sb.toString();
+        } finally {
+            reader.close();
+        }
+    }
+}